@@ -0,0 +1,193 @@
+package com.github.curiousoddman.curioustestutils.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.skyscreamer.jsonassert.Customization;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * Sidecar hash that allows to skip structural comparison for assertions that passed before.
+ * <p>
+ * Sidecar contains last modification time and size of the expected file, hash of its contents and canonical hash of
+ * the actual json that matched it: keys are sorted, values at ignored paths are dropped and numbers are normalized.
+ * While modification time and size are unchanged, the expected file is not read at all. Otherwise it is hashed again
+ * and, if it changed, the sidecar becomes stale and full comparison is performed again.
+ * <p>
+ * Sidecars are kept out of the source tree, under {@code target/json-content-hash} by default
+ * (can be changed with {@code json.content.hash.dir} system property).
+ */
+@Slf4j
+@UtilityClass
+class ContentHash {
+    static final String SIDECAR_EXTENSION = ".hash";
+    static final Path SIDECAR_ROOT = Path.of(System.getProperty("json.content.hash.dir", "target/json-content-hash")).toAbsolutePath();
+
+    private static final String NO_STAMP = "-";
+    private static final ObjectReader READER = new ObjectMapper().reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    /**
+     * @return canonical hash of actual value or empty if some ignore path is not found in data.
+     */
+    static Optional<String> actualHash(String actualValue, Collection<Customization> ignored) throws IOException {
+        MessageDigest actualDigest = sha256();
+        Set<Customization> used = Collections.newSetFromMap(new IdentityHashMap<>());
+        update(actualDigest, "", READER.readTree(actualValue), ignored, used);
+        if (used.size() != ignored.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(HexFormat.of().formatHex(actualDigest.digest()));
+    }
+
+    static boolean matchesSidecar(Path expectedFile, String actualHash) throws IOException {
+        Optional<String[]> sidecar = readSidecar(expectedFile);
+        if (sidecar.isEmpty() || !sidecar.get()[2].equals(actualHash)) {
+            return false;
+        }
+        String stamp = stampOf(expectedFile);
+        if (!stamp.equals(NO_STAMP) && stamp.equals(sidecar.get()[0])) {
+            return true;
+        }
+
+        Optional<String> expected = ExpectedFiles.readIfExists(expectedFile);
+        if (expected.isEmpty() || !hash(expected.get()).equals(sidecar.get()[1])) {
+            return false;
+        }
+        if (!stamp.equals(NO_STAMP)) {
+            // Touched, but not changed - refresh the stamp, so that it is not read again next time
+            writeSidecar(expectedFile, stamp, expected.get(), actualHash);
+        }
+        return true;
+    }
+
+    /**
+     * Writes sidecar after successful comparison of {@code expected} contents with actual value.
+     * Nothing is written if the expected file has been changed since it was read.
+     */
+    static void writeSidecar(Path expectedFile, String expected, String actualHash) throws IOException {
+        String stamp = stampOf(expectedFile);
+        if (ExpectedFiles.readIfExists(expectedFile).filter(expected::equals).isEmpty()) {
+            log.debug("Expected file {} changed during comparison, content hash is not updated", expectedFile);
+            return;
+        }
+        writeSidecar(expectedFile, stamp, expected, actualHash);
+    }
+
+    private static void writeSidecar(Path expectedFile, String stamp, String expected, String actualHash) throws IOException {
+        Path sidecar = sidecarOf(expectedFile);
+        Files.createDirectories(sidecar.getParent());
+        Path temp = Files.createTempFile(sidecar.getParent(), sidecar.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, String.join(" ", stamp, hash(expected), actualHash));
+            Files.move(temp, sidecar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.debug("Updated content hash for {}", expectedFile);
+    }
+
+    private static Optional<String[]> readSidecar(Path expectedFile) throws IOException {
+        try {
+            String[] fields = Files.readString(sidecarOf(expectedFile)).trim().split(" ");
+            return fields.length == 3 ? Optional.of(fields) : Optional.empty();
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return modification time and size of the expected file or {@link #NO_STAMP} when it is missing
+     * or served from the bundle.
+     */
+    private static String stampOf(Path expectedFile) throws IOException {
+        if (ExpectedFiles.isBundled(expectedFile)) {
+            return NO_STAMP;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(expectedFile, BasicFileAttributes.class);
+            return attributes.lastModifiedTime().toMillis() + "/" + attributes.size();
+        } catch (NoSuchFileException e) {
+            return NO_STAMP;
+        }
+    }
+
+    static Path sidecarOf(Path expectedFile) {
+        Path relative = expectedFile.startsWith(ExpectedFiles.RESOURCES_ROOT)
+                ? ExpectedFiles.RESOURCES_ROOT.relativize(expectedFile)
+                : Path.of("external", hash(expectedFile.toAbsolutePath().toString()));
+        return SIDECAR_ROOT.resolve(relative + SIDECAR_EXTENSION);
+    }
+
+    private static String hash(String value) {
+        return HexFormat.of().formatHex(sha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void update(MessageDigest digest, String path, JsonNode node, Collection<Customization> ignored, Set<Customization> used) {
+        if (!path.isEmpty()) {
+            for (Customization customization : ignored) {
+                if (customization.appliesToPath(path)) {
+                    used.add(customization);
+                    digest.update((byte) 'I');
+                    return;
+                }
+            }
+        }
+
+        if (node.isObject()) {
+            digest.update((byte) 'O');
+            updateLength(digest, node.size());
+            List<String> fields = new ArrayList<>(node.size());
+            node.fieldNames().forEachRemaining(fields::add);
+            Collections.sort(fields);
+            for (String field : fields) {
+                updateString(digest, field);
+                update(digest, path.isEmpty() ? field : path + "." + field, node.get(field), ignored, used);
+            }
+        } else if (node.isArray()) {
+            digest.update((byte) 'A');
+            updateLength(digest, node.size());
+            for (int i = 0; i < node.size(); i++) {
+                update(digest, path + "[" + i + "]", node.get(i), ignored, used);
+            }
+        } else if (node.isNumber()) {
+            digest.update((byte) 'N');
+            updateString(digest, node.decimalValue().stripTrailingZeros().toPlainString());
+        } else if (node.isTextual()) {
+            digest.update((byte) 'S');
+            updateString(digest, node.textValue());
+        } else if (node.isBoolean()) {
+            digest.update((byte) (node.booleanValue() ? 'T' : 'F'));
+        } else {
+            digest.update((byte) 'Z');
+        }
+    }
+
+    private static void updateString(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateLength(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void updateLength(MessageDigest digest, int length) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(length).array());
+    }
+
+    @SneakyThrows
+    private static MessageDigest sha256() {
+        return MessageDigest.getInstance("SHA-256");
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.curiousoddman.curioustestutils.json;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Resolves and reads expected files from {@code src/test/resources}.
+ * <p>
+ * When {@code some/file.json} does not exist, but {@code some/file.json.gz} does - the compressed variant is used.
+ * When {@code expected.json.bundle} system property points to a bundle (see {@link ExpectedFilesBundle}),
+ * files are looked up in the bundle first and only then on the file system.
+ */
+@Slf4j
+@UtilityClass
+class ExpectedFiles {
+    static final Path RESOURCES_ROOT = Path.of("src/test/resources").toAbsolutePath();
+    static final String GZIP_EXTENSION = ".gz";
+
+    private static final Optional<ExpectedFilesBundle> BUNDLE = Optional
+            .ofNullable(System.getProperty("expected.json.bundle"))
+            .map(ExpectedFiles::openBundle);
+
+    static Path resolve(String pathToExpectedFile) {
+        Path path = RESOURCES_ROOT
+                .resolve(pathToExpectedFile)
+                .normalize();
+        Path compressed = path.resolveSibling(path.getFileName() + GZIP_EXTENSION);
+        if (BUNDLE.isPresent()) {
+            String name = bundleName(path);
+            if (BUNDLE.get().contains(name)) {
+                return path;
+            }
+            if (BUNDLE.get().contains(name + GZIP_EXTENSION)) {
+                return compressed;
+            }
+        }
+        if (isCompressed(path) || Files.exists(path)) {
+            return path;
+        }
+        return Files.exists(compressed) ? compressed : path;
+    }
+
+    static String read(Path path) throws IOException {
+        try (InputStream inputStream = open(path)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static Optional<String> readIfExists(Path path) throws IOException {
+        try {
+            return Optional.of(read(path));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    static InputStream open(Path path) throws IOException {
+        InputStream inputStream = openRaw(path);
+        return isCompressed(path) ? new GZIPInputStream(inputStream) : inputStream;
+    }
+
+    private static InputStream openRaw(Path path) throws IOException {
+        Optional<ByteBuffer> bundled = BUNDLE.flatMap(bundle -> bundle.get(bundleName(path)));
+        if (bundled.isPresent()) {
+            ByteBuffer buffer = bundled.get();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new ByteArrayInputStream(bytes);
+        }
+        return Files.newInputStream(path);
+    }
+
+    static void write(Path path, String contents) throws IOException {
+        try (OutputStream outputStream = openForWrite(path)) {
+            outputStream.write(contents.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static void write(Path path, InputStream contents) throws IOException {
+        try (OutputStream outputStream = openForWrite(path)) {
+            contents.transferTo(outputStream);
+        }
+    }
+
+    private static OutputStream openForWrite(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        warnIfBundled(path);
+        OutputStream outputStream = Files.newOutputStream(path);
+        return isCompressed(path) ? new GZIPOutputStream(outputStream) : outputStream;
+    }
+
+    private static void warnIfBundled(Path path) {
+        if (isBundled(path)) {
+            // The bundle takes precedence over loose files, so it has to be re-packed to pick up the change
+            log.warn("Expected file {} is also present in the bundle. Re-pack the bundle to apply the change.", path);
+        }
+    }
+
+    static boolean isBundled(Path path) {
+        return BUNDLE.isPresent() && BUNDLE.get().contains(bundleName(path));
+    }
+
+    static boolean isCompressed(Path path) {
+        return path.getFileName().toString().endsWith(GZIP_EXTENSION);
+    }
+
+    private static String bundleName(Path path) {
+        return path.startsWith(RESOURCES_ROOT)
+                ? ExpectedFilesBundle.toName(RESOURCES_ROOT.relativize(path))
+                : path.toString();
+    }
+
+    @SneakyThrows
+    private static ExpectedFilesBundle openBundle(String bundleFile) {
+        return ExpectedFilesBundle.open(Path.of(bundleFile));
+    }
+}
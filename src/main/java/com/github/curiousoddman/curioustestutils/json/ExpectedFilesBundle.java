@@ -0,0 +1,166 @@
+package com.github.curiousoddman.curioustestutils.json;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A single file that packs many expected files together.
+ * <p>
+ * Layout: {@code magic, version, entryCount}, then for every entry {@code nameLength, name (UTF-8), offset, length},
+ * then the contents of all entries. The whole bundle is memory-mapped once; entries are served as read-only slices.
+ * <p>
+ * Usage: {@code ExpectedFilesBundle pack src/test/resources target/expected.bundle}
+ * or {@code ExpectedFilesBundle unpack target/expected.bundle src/test/resources}.
+ */
+@Slf4j
+public class ExpectedFilesBundle {
+    private static final int MAGIC = 0x43545542;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 3;
+    private static final int ENTRY_FIXED_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, Entry> entries;
+
+    private ExpectedFilesBundle(MappedByteBuffer buffer, Map<String, Entry> entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    public static ExpectedFilesBundle open(Path bundleFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(bundleFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Bundle " + bundleFile + " is larger than 2GB, split it into several bundles");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not an expected files bundle: " + bundleFile);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported bundle version " + version + " in " + bundleFile);
+            }
+            int entryCount = buffer.getInt();
+            Map<String, Entry> entries = new HashMap<>(entryCount * 2);
+            for (int i = 0; i < entryCount; i++) {
+                byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+                entries.put(new String(name, StandardCharsets.UTF_8), new Entry((int) buffer.getLong(), buffer.getInt()));
+            }
+            log.info("Loaded {} expected files from bundle {}", entryCount, bundleFile);
+            return new ExpectedFilesBundle(buffer, entries);
+        }
+    }
+
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public Optional<ByteBuffer> get(String name) {
+        Entry entry = entries.get(name);
+        return entry == null
+                ? Optional.empty()
+                : Optional.of(buffer.slice(entry.offset(), entry.length()).asReadOnlyBuffer());
+    }
+
+    public static void pack(Path root, Path bundleFile) throws IOException {
+        Path excluded = bundleFile.toAbsolutePath().normalize();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !file.toAbsolutePath().normalize().equals(excluded))
+                    .sorted()
+                    .toList();
+        }
+
+        List<byte[]> names = new ArrayList<>(files.size());
+        long offset = HEADER_SIZE;
+        for (Path file : files) {
+            byte[] name = toName(root.relativize(file)).getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            offset += ENTRY_FIXED_SIZE + name.length;
+        }
+
+        if (bundleFile.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(bundleFile.toAbsolutePath().getParent());
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bundleFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                long size = Files.size(files.get(i));
+                output.writeInt(names.get(i).length);
+                output.write(names.get(i));
+                output.writeLong(offset);
+                output.writeInt(Math.toIntExact(size));
+                offset += size;
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Files in " + root + " do not fit into a single bundle (2GB)");
+            }
+            for (Path file : files) {
+                try (InputStream input = Files.newInputStream(file)) {
+                    input.transferTo(output);
+                }
+            }
+        }
+        log.info("Packed {} files from {} into {}", files.size(), root, bundleFile);
+    }
+
+    public static void unpack(Path bundleFile, Path root) throws IOException {
+        ExpectedFilesBundle bundle = open(bundleFile);
+        for (String name : bundle.names()) {
+            Path target = root.resolve(name).normalize();
+            if (!target.startsWith(root.normalize())) {
+                throw new IllegalStateException("Bundle entry " + name + " points outside of " + root);
+            }
+            Files.createDirectories(target.getParent());
+            ByteBuffer contents = bundle.get(name).orElseThrow();
+            try (OutputStream output = Files.newOutputStream(target)) {
+                byte[] bytes = new byte[contents.remaining()];
+                contents.get(bytes);
+                output.write(bytes);
+            }
+        }
+        log.info("Unpacked {} files from {} into {}", bundle.names().size(), bundleFile, root);
+    }
+
+    static String toName(Path relativePath) {
+        return relativePath.toString().replace('\\', '/');
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && "pack".equals(args[0])) {
+            pack(Path.of(args[1]), Path.of(args[2]));
+        } else if (args.length == 3 && "unpack".equals(args[0])) {
+            unpack(Path.of(args[1]), Path.of(args[2]));
+        } else {
+            System.err.println("Usage: ExpectedFilesBundle pack <resources dir> <bundle file>");
+            System.err.println("       ExpectedFilesBundle unpack <bundle file> <resources dir>");
+            System.exit(1);
+        }
+    }
+
+    private record Entry(int offset, int length) {
+    }
+}
@@ -3,7 +3,10 @@ package com.github.curiousoddman.curioustestutils.json;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.SqlDateSerializer;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.micrometer.core.instrument.Measurement;
@@ -15,25 +18,28 @@ import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.skyscreamer.jsonassert.*;
 import org.skyscreamer.jsonassert.comparator.DefaultComparator;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.text.FieldPosition;
-import java.text.SimpleDateFormat;
+import java.sql.Timestamp;
 import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
 import java.util.*;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -46,32 +52,65 @@ public class JsonTestUtils {
             .appendPattern("x")
             .toFormatter();
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter UTC_DATE_TIME_FORMATTER = DATE_TIME_FORMATTER.withZone(ZoneOffset.UTC);
+
+    private static final SimpleModule SERIALIZERS_MODULE = new SimpleModule("curious-test-utils-serializers");
 
     static {
-        JavaTimeModule module = new JavaTimeModule();
-        module.addSerializer(OffsetDateTime.class, new OffsetDateTimeSerializer());
-        module.addDeserializer(OffsetDateTime.class, new OffsetDateTimeDeserializer());
-        OBJECT_MAPPER.registerModule(new Jdk8Module());
-        OBJECT_MAPPER.registerModule(module);
-        OBJECT_MAPPER.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ssZ") {
-            @Override
-            public StringBuffer format(Date date, StringBuffer toAppendTo, FieldPosition fieldPosition) {
-                ZoneId utc = ZoneId.of("UTC");
-                String formatted = DATE_TIME_FORMATTER.format(ZonedDateTime.ofInstant(date.toInstant(), utc));
-                return toAppendTo.append(formatted);
-            }
-        };
-        OBJECT_MAPPER.setDateFormat(dateFormat);
+        SERIALIZERS_MODULE.addSerializer(OffsetDateTime.class, new OffsetDateTimeSerializer());
+        SERIALIZERS_MODULE.addDeserializer(OffsetDateTime.class, new OffsetDateTimeDeserializer());
+        // Formatters are immutable, so unlike DateFormat these (de)serializers are shared between threads without copying
+        SERIALIZERS_MODULE.addSerializer(Date.class, new UtcDateSerializer());
+        SERIALIZERS_MODULE.addSerializer(Calendar.class, new UtcCalendarSerializer());
+        SERIALIZERS_MODULE.addSerializer(java.sql.Date.class, new SqlDateSerializer());
+        SERIALIZERS_MODULE.addKeySerializer(Date.class, new UtcDateKeySerializer());
+        SERIALIZERS_MODULE.addDeserializer(Date.class, new UtcDateDeserializer());
+        SERIALIZERS_MODULE.addDeserializer(Timestamp.class, new UtcTimestampDeserializer());
     }
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private static final ObjectWriter DEFAULT_OBJECT_WRITER = prepareWriter(OBJECT_MAPPER);
+    private static volatile ObjectWriter objectWriter = DEFAULT_OBJECT_WRITER;
+
+    private static final Pattern ARRAY_INDEX_PREFIX = Pattern.compile("^\\[(\\d+)]");
+
     private static final boolean overwriteFilesOnFailedAssertion = Optional
             .ofNullable(System.getProperty("overwrite.json.on.failed.comparison"))
             .map(Boolean::parseBoolean)
             .orElse(false);
 
+    private static final boolean contentHashFastPath = Optional
+            .ofNullable(System.getProperty("json.content.hash.fast.path"))
+            .map(Boolean::parseBoolean)
+            .orElse(false);
+
+    /**
+     * Use given object mapper for all subsequent assertions. Serializers of this class are registered on a copy of it,
+     * so later changes of the mapper are not used.
+     */
+    public static void setObjectMapper(ObjectMapper objectMapper) {
+        objectWriter = prepareWriter(objectMapper);
+    }
+
+    public static void resetObjectMapper() {
+        objectWriter = DEFAULT_OBJECT_WRITER;
+    }
+
+    /**
+     * {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} is always disabled, dates are compared as text.
+     */
+    private static ObjectWriter prepareWriter(ObjectMapper objectMapper) {
+        return objectMapper
+                .copy()
+                .registerModule(new Jdk8Module())
+                .registerModule(new JavaTimeModule())
+                .registerModule(SERIALIZERS_MODULE)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writer();
+    }
+
     @SneakyThrows
     public static void assertJsonEquals(String pathToExpectedFile, RequiredSearch metricSearch, String... pathsToIgnore) {
         List<MetricObject> metricObjects = metricSearch
@@ -81,7 +120,7 @@ public class JsonTestUtils {
                 .sorted(Comparator.comparing(MetricObject::getName))
                 .toList();
 
-        assertJsonEquals(pathToExpectedFile, OBJECT_MAPPER.writeValueAsString(metricObjects), pathsToIgnore);
+        assertJsonEquals(pathToExpectedFile, objectWriter.writeValueAsString(metricObjects), pathsToIgnore);
     }
 
     @SneakyThrows
@@ -95,7 +134,7 @@ public class JsonTestUtils {
                 .sorted(Comparator.comparing(MetricObject::getName))
                 .toList();
 
-        assertJsonEquals(pathToExpectedFile, OBJECT_MAPPER.writeValueAsString(metricObjects), pathsToIgnore);
+        assertJsonEquals(pathToExpectedFile, objectWriter.writeValueAsString(metricObjects), pathsToIgnore);
     }
 
     @Value
@@ -107,47 +146,273 @@ public class JsonTestUtils {
 
     @SneakyThrows
     public static void assertJsonEquals(String pathToExpectedFile, Object object, String... pathsToIgnore) {
-        assertJsonEquals(pathToExpectedFile, OBJECT_MAPPER.writeValueAsString(object), pathsToIgnore);
+        assertJsonEquals(pathToExpectedFile, objectWriter.writeValueAsString(object), pathsToIgnore);
     }
 
+    /**
+     * Copies given mapper on every call, prefer {@link #setObjectMapper(ObjectMapper)} when it is used for many assertions.
+     */
     @SneakyThrows
+    public static void assertJsonEquals(String pathToExpectedFile, Object object, ObjectMapper objectMapper, String... pathsToIgnore) {
+        assertJsonEquals(pathToExpectedFile, prepareWriter(objectMapper).writeValueAsString(object), pathsToIgnore);
+    }
+
     public static void assertJsonEquals(String pathToExpectedFile, String actualValue, String... pathsToIgnore) {
+        assertJsonEquals(pathToExpectedFile, actualValue, toIgnoreCustomizations(pathsToIgnore), contentHashFastPath);
+    }
+
+    /**
+     * Numbers at given paths may differ from expected ones by given relative tolerance,
+     * i.e. with tolerance {@code 0.1} expected value {@code 100} matches actual values from {@code 90} to {@code 110}.
+     */
+    @SneakyThrows
+    public static void assertJsonEqualsWithTolerance(String pathToExpectedFile, Object object, double tolerance, String... pathsWithTolerance) {
+        Map<Customization, String> customizationsPaths = new IdentityHashMap<>();
+        for (String path : pathsWithTolerance) {
+            customizationsPaths.put(new Customization(path, withinTolerance(tolerance)), path);
+        }
+        // content hash ignores customized paths, so it cannot be used for tolerance checks
+        assertJsonEquals(pathToExpectedFile, objectWriter.writeValueAsString(object), customizationsPaths, false);
+    }
+
+    /**
+     * Numbers at given paths may be lower than expected ones or exceed them by given relative tolerance,
+     * i.e. with tolerance {@code 0.1} expected value {@code 100} matches any actual value up to {@code 110}.
+     */
+    public static void assertJsonEqualsAtMost(String pathToExpectedFile, Object object, double tolerance, String... pathsWithTolerance) {
+        assertJsonEqualsAtMost(pathToExpectedFile, object, tolerance, 0, pathsWithTolerance);
+    }
+
+    /**
+     * Same as {@link #assertJsonEqualsAtMost(String, Object, double, String...)}, but actual values may always exceed
+     * expected ones by {@code absoluteTolerance}, i.e. resolution of values, so that expected {@code 0} is not exact.
+     */
+    @SneakyThrows
+    public static void assertJsonEqualsAtMost(String pathToExpectedFile, Object object, double tolerance, double absoluteTolerance, String... pathsWithTolerance) {
+        Map<Customization, String> customizationsPaths = new IdentityHashMap<>();
+        for (String path : pathsWithTolerance) {
+            customizationsPaths.put(new Customization(path, atMost(tolerance, absoluteTolerance)), path);
+        }
+        assertJsonEquals(pathToExpectedFile, objectWriter.writeValueAsString(object), customizationsPaths, false);
+    }
+
+    private static ValueMatcher<Object> atMost(double tolerance, double absoluteTolerance) {
+        return (actual, expected) -> actual instanceof Number actualNumber
+                                     && expected instanceof Number expectedNumber
+                                     && actualNumber.doubleValue() <= expectedNumber.doubleValue()
+                                                                      + Math.max(Math.abs(expectedNumber.doubleValue()) * tolerance, absoluteTolerance);
+    }
+
+    private static ValueMatcher<Object> withinTolerance(double tolerance) {
+        return (actual, expected) -> actual instanceof Number actualNumber
+                                     && expected instanceof Number expectedNumber
+                                     && Math.abs(actualNumber.doubleValue() - expectedNumber.doubleValue()) <= Math.abs(expectedNumber.doubleValue()) * tolerance;
+    }
+
+    @SneakyThrows
+    private static void assertJsonEquals(String pathToExpectedFile, String actualValue, Map<Customization, String> customizationsPaths, boolean useContentHash) {
         log.info("Actual json '{}'", actualValue);
-        if (pathToExpectedFile.charAt(0) == '/' || pathToExpectedFile.charAt(0) == '\\') {
-            pathToExpectedFile = pathToExpectedFile.substring(1);
+        Path expectedFilePathResolved = resolveExpectedFile(pathToExpectedFile);
+        Optional<String> contentHash = useContentHash
+                ? ContentHash.actualHash(actualValue, customizationsPaths.keySet())
+                : Optional.empty();
+        if (contentHash.isPresent() && ContentHash.matchesSidecar(expectedFilePathResolved, contentHash.get())) {
+            log.info("Actual json matches content hash of {}", expectedFilePathResolved);
+            return;
         }
-        Path expectedFilePathResolved = Path
-                .of("src/test/resources")
-                .resolve(pathToExpectedFile)
-                .normalize()
-                .toAbsolutePath();
         try {
-            String expected = Files.readString(expectedFilePathResolved);
-            if (pathsToIgnore.length > 0) {
-                Map<Customization, String> customizationsPaths = new IdentityHashMap<>();
-                for (String path : pathsToIgnore) {
-                    customizationsPaths.put(new Customization(path, (o, o2) -> true), path);
-                }
-
+            String expected = ExpectedFiles.read(expectedFilePathResolved);
+            if (!customizationsPaths.isEmpty()) {
                 UsageTrackingComparator comparator = new UsageTrackingComparator(JSONCompareMode.STRICT, customizationsPaths.keySet().toArray(new Customization[0]));
                 JSONAssert.assertEquals(expected, actualValue, comparator);
-                Set<Customization> unusedCustomizations = comparator.getUnusedCustomizations();
-                if (!unusedCustomizations.isEmpty()) {
-                    String unusedPaths = unusedCustomizations.stream().map(customizationsPaths::get).collect(Collectors.joining(", "));
-                    throw new IllegalStateException("Path exclusions that are not found in data: " + unusedPaths);
-                }
+                verifyAllCustomizationsUsed(comparator.getUnusedCustomizations(), customizationsPaths);
             } else {
                 JSONAssert.assertEquals(expected, actualValue, JSONCompareMode.STRICT);
             }
+            if (contentHash.isPresent()) {
+                ContentHash.writeSidecar(expectedFilePathResolved, expected, contentHash.get());
+            }
+        } catch (AssertionError | NoSuchFileException error) {
+            if (overwriteFilesOnFailedAssertion) {
+                ExpectedFiles.write(expectedFilePathResolved, actualValue);
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * Compares elements of the stream one by one with lines of newline-delimited json file.
+     * Stream is consumed lazily and comparison stops on the first mismatch.
+     */
+    public static <T> void assertJsonLines(String pathToExpectedFile, Stream<T> actual, String... pathsToIgnore) {
+        try (actual) {
+            assertJsonLines(pathToExpectedFile, actual.iterator(), pathsToIgnore);
+        }
+    }
+
+    @SneakyThrows
+    public static <T> void assertJsonLines(String pathToExpectedFile, Iterator<T> actual, String... pathsToIgnore) {
+        ObjectWriter writer = objectWriter;
+        Path expectedFilePathResolved = resolveExpectedFile(pathToExpectedFile);
+        Map<Customization, String> customizationsPaths = toIgnoreCustomizations(pathsToIgnore);
+        UsageTrackingComparator comparator = new UsageTrackingComparator(JSONCompareMode.STRICT, customizationsPaths.keySet().toArray(new Customization[0]));
+        // To overwrite expected file actual lines are copied to a temporary file, so that memory usage stays constant
+        Path actualCopy = overwriteFilesOnFailedAssertion ? Files.createTempFile("actual", ".ndjson") : null;
+        try (BufferedWriter actualCopyWriter = actualCopy == null ? null : Files.newBufferedWriter(actualCopy)) {
+            try (BufferedReader expectedLines = new BufferedReader(new InputStreamReader(ExpectedFiles.open(expectedFilePathResolved), StandardCharsets.UTF_8))) {
+                int lineNumber = 0;
+                while (actual.hasNext()) {
+                    String actualLine = writer.writeValueAsString(actual.next());
+                    lineNumber++;
+                    writeLine(actualCopyWriter, actualLine);
+                    String expectedLine = nextNonBlankLine(expectedLines);
+                    if (expectedLine == null) {
+                        throw new AssertionError("Line " + lineNumber + ": unexpected element " + actualLine);
+                    }
+                    try {
+                        JSONAssert.assertEquals(expectedLine, actualLine, comparator);
+                    } catch (AssertionError error) {
+                        throw new AssertionError("Line " + lineNumber + ": " + error.getMessage(), error);
+                    }
+                }
+                String missingLine = nextNonBlankLine(expectedLines);
+                if (missingLine != null) {
+                    throw new AssertionError("Line " + (lineNumber + 1) + ": expected " + missingLine + " but there are no more elements");
+                }
+                verifyAllCustomizationsUsed(comparator.getUnusedCustomizations(), customizationsPaths);
+            } catch (AssertionError | NoSuchFileException error) {
+                if (actualCopyWriter != null) {
+                    while (actual.hasNext()) {
+                        writeLine(actualCopyWriter, writer.writeValueAsString(actual.next()));
+                    }
+                    actualCopyWriter.close();
+                    try (InputStream actualLines = Files.newInputStream(actualCopy)) {
+                        ExpectedFiles.write(expectedFilePathResolved, actualLines);
+                    }
+                }
+                throw error;
+            }
+        } finally {
+            if (actualCopy != null) {
+                Files.deleteIfExists(actualCopy);
+            }
+        }
+    }
+
+    private static void writeLine(BufferedWriter writer, String line) throws IOException {
+        if (writer != null) {
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    private static String nextNonBlankLine(BufferedReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    @SneakyThrows
+    private static void assertJsonArrayInChunks(String pathToExpectedFile, List<?> actual, ObjectWriter writer, int chunkSize, String... pathsToIgnore) {
+        Path expectedFilePathResolved = resolveExpectedFile(pathToExpectedFile);
+        try {
+            JSONArray expected = new JSONArray(ExpectedFiles.read(expectedFilePathResolved));
+            if (expected.length() != actual.size()) {
+                throw new AssertionError("Expected " + expected.length() + " elements, but got " + actual.size());
+            }
+
+            Map<Customization, String> customizationsPaths = toIgnoreCustomizations(pathsToIgnore);
+            Customization[] customizations = customizationsPaths.keySet().toArray(new Customization[0]);
+            int chunksCount = (actual.size() + chunkSize - 1) / chunkSize;
+            List<ChunkResult> chunkResults = IntStream
+                    .range(0, chunksCount)
+                    .parallel()
+                    .mapToObj(chunk -> compareChunk(expected, actual, writer, chunk * chunkSize, Math.min(actual.size(), (chunk + 1) * chunkSize), customizations))
+                    .toList();
+
+            String failures = chunkResults
+                    .stream()
+                    .flatMap(chunkResult -> chunkResult.getFailures().stream())
+                    .collect(Collectors.joining(" ; "));
+            if (!failures.isEmpty()) {
+                throw new AssertionError(failures);
+            }
+
+            Set<Customization> unusedCustomizations = Collections.newSetFromMap(new IdentityHashMap<>());
+            unusedCustomizations.addAll(customizationsPaths.keySet());
+            chunkResults.forEach(chunkResult -> unusedCustomizations.retainAll(chunkResult.getUnusedCustomizations()));
+            verifyAllCustomizationsUsed(unusedCustomizations, customizationsPaths);
         } catch (AssertionError | NoSuchFileException error) {
             if (overwriteFilesOnFailedAssertion) {
-                Files.createDirectories(expectedFilePathResolved.getParent());
-                Files.writeString(expectedFilePathResolved, actualValue);
+                ExpectedFiles.write(expectedFilePathResolved, writer.writeValueAsString(actual));
             }
             throw error;
         }
     }
 
+    @SneakyThrows
+    private static ChunkResult compareChunk(JSONArray expected, List<?> actual, ObjectWriter writer, int from, int to, Customization[] customizations) {
+        JSONArray expectedChunk = new JSONArray();
+        for (int i = from; i < to; i++) {
+            expectedChunk.put(expected.get(i));
+        }
+        JSONArray actualChunk = new JSONArray(writer.writeValueAsString(actual.subList(from, to)));
+
+        UsageTrackingComparator comparator = new UsageTrackingComparator(JSONCompareMode.STRICT, customizations);
+        JSONCompareResult result = comparator.compareJSON(expectedChunk, actualChunk);
+        List<String> failures = new ArrayList<>();
+        for (FieldComparisonFailure failure : result.getFieldFailures()) {
+            failures.add(shiftIndex(failure.getField(), from) + "\nExpected: " + failure.getExpected() + "\n     got: " + failure.getActual() + "\n");
+        }
+        for (FieldComparisonFailure missing : result.getFieldMissing()) {
+            failures.add(shiftIndex(missing.getField(), from) + "\nExpected: " + missing.getExpected() + "\n     but none found\n");
+        }
+        for (FieldComparisonFailure unexpected : result.getFieldUnexpected()) {
+            failures.add(shiftIndex(unexpected.getField(), from) + "\nUnexpected: " + unexpected.getActual() + "\n");
+        }
+        if (result.failed() && failures.isEmpty()) {
+            failures.add("Elements [" + from + ".." + to + "): " + result.getMessage());
+        }
+        return new ChunkResult(failures, comparator.getUnusedCustomizations());
+    }
+
+    private static String shiftIndex(String field, int offset) {
+        Matcher matcher = ARRAY_INDEX_PREFIX.matcher(field);
+        return matcher.find()
+                ? "[" + (Integer.parseInt(matcher.group(1)) + offset) + "]" + field.substring(matcher.end())
+                : field;
+    }
+
+    @Value
+    private static class ChunkResult {
+        List<String> failures;
+        Set<Customization> unusedCustomizations;
+    }
+
+    private static Path resolveExpectedFile(String pathToExpectedFile) {
+        if (pathToExpectedFile.charAt(0) == '/' || pathToExpectedFile.charAt(0) == '\\') {
+            pathToExpectedFile = pathToExpectedFile.substring(1);
+        }
+        return ExpectedFiles.resolve(pathToExpectedFile);
+    }
+
+    private static Map<Customization, String> toIgnoreCustomizations(String... pathsToIgnore) {
+        Map<Customization, String> customizationsPaths = new IdentityHashMap<>();
+        for (String path : pathsToIgnore) {
+            customizationsPaths.put(new Customization(path, (o, o2) -> true), path);
+        }
+        return customizationsPaths;
+    }
+
+    private static void verifyAllCustomizationsUsed(Set<Customization> unusedCustomizations, Map<Customization, String> customizationsPaths) {
+        if (!unusedCustomizations.isEmpty()) {
+            String unusedPaths = unusedCustomizations.stream().map(customizationsPaths::get).collect(Collectors.joining(", "));
+            throw new IllegalStateException("Path exclusions that are not found in data: " + unusedPaths);
+        }
+    }
+
     public static <T> JsonAssertBuilder<T> assertJsonArray(Iterable<T> object) {
         return new JsonAssertBuilder<>(object);
     }
@@ -158,6 +423,8 @@ public class JsonTestUtils {
 
         private Comparator<T> ordering = null;
         private List<String> ignorePaths = List.of();
+        private int chunkSize = 0;
+        private ObjectWriter writer = null;
 
         public JsonAssertBuilder<T> orderedBy(Comparator<T> ordering) {
             this.ordering = ordering;
@@ -174,12 +441,37 @@ public class JsonTestUtils {
             return this;
         }
 
+        public JsonAssertBuilder<T> using(ObjectMapper objectMapper) {
+            this.writer = prepareWriter(objectMapper);
+            return this;
+        }
+
+        /**
+         * Serialize and compare elements in chunks of given size in parallel (on common fork-join pool).
+         * Useful for very large collections. Ignore paths that refer to a concrete array index are not supported.
+         */
+        public JsonAssertBuilder<T> inParallelChunks(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("Chunk size must be positive, but was " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
         public void isEqualTo(String expectedJsonFilePath) {
-            Stream<T> stream = ordering == null
-                    ? toStream(collection)
-                    : toStream(collection).sorted(Comparator.nullsFirst(ordering));
+            Stream<T> stream = chunkSize > 0
+                    ? toStream(collection).parallel()
+                    : toStream(collection);
+            if (ordering != null) {
+                stream = stream.sorted(Comparator.nullsFirst(ordering));
+            }
 
-            assertJsonEquals(expectedJsonFilePath, stream.toList(), ignorePaths.toArray(new String[0]));
+            ObjectWriter writer = this.writer == null ? objectWriter : this.writer;
+            if (chunkSize > 0) {
+                assertJsonArrayInChunks(expectedJsonFilePath, stream.toList(), writer, chunkSize, ignorePaths.toArray(new String[0]));
+            } else {
+                assertJsonEquals(expectedJsonFilePath, serialize(writer, stream.toList()), ignorePaths.toArray(new String[0]));
+            }
         }
     }
 
@@ -197,6 +489,45 @@ public class JsonTestUtils {
         }
     }
 
+    public class UtcDateSerializer extends JsonSerializer<Date> {
+        @Override
+        public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(UTC_DATE_TIME_FORMATTER.format(value.toInstant()));
+        }
+    }
+
+    public class UtcCalendarSerializer extends JsonSerializer<Calendar> {
+        @Override
+        public void serialize(Calendar value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(UTC_DATE_TIME_FORMATTER.format(value.toInstant()));
+        }
+    }
+
+    public class UtcDateKeySerializer extends JsonSerializer<Date> {
+        @Override
+        public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(UTC_DATE_TIME_FORMATTER.format(value.toInstant()));
+        }
+    }
+
+    public class UtcDateDeserializer extends JsonDeserializer<Date> {
+        @Override
+        public Date deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+                    ? new Date(parser.getLongValue())
+                    : Date.from(OffsetDateTime.parse(parser.getText(), DATE_TIME_FORMATTER).toInstant());
+        }
+    }
+
+    public class UtcTimestampDeserializer extends JsonDeserializer<Timestamp> {
+        @Override
+        public Timestamp deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+                    ? new Timestamp(parser.getLongValue())
+                    : Timestamp.from(OffsetDateTime.parse(parser.getText(), DATE_TIME_FORMATTER).toInstant());
+        }
+    }
+
     // This is a copy of CustomComparator with additional tracking which customizations were not used
     public static class UsageTrackingComparator extends DefaultComparator {
         private final Collection<Customization> customizations;
@@ -237,6 +568,11 @@ public class JsonTestUtils {
         }
     }
 
+    @SneakyThrows
+    private static String serialize(ObjectWriter writer, Object object) {
+        return writer.writeValueAsString(object);
+    }
+
     private static <T> Stream<T> toStream(Iterable<T> measure) {
         return StreamSupport.stream(measure.spliterator(), false);
     }
@@ -0,0 +1,19 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test if test thread allocates more than {@link #maxBytes()} while executing test method.
+ * On a class - applies to every test method that does not declare its own budget.
+ */
+@ExtendWith(ResourceUsageExtension.class)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AllocationBudget {
+    long maxBytes();
+}
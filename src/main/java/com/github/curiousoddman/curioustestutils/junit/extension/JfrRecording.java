@@ -0,0 +1,26 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records JDK Flight Recorder events while test method is executed, see {@link JfrRecordingExtension}.
+ */
+@ExtendWith(JfrRecordingExtension.class)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JfrRecording {
+    /**
+     * Monitor enter and thread park events shorter than this are not recorded.
+     */
+    long thresholdMillis() default 10;
+
+    /**
+     * Keep recording file even if test passes.
+     */
+    boolean keep() default false;
+}
@@ -0,0 +1,156 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.engine.UniqueId;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Starts JDK Flight Recorder recording around every {@link JfrRecording} test and converts recorded events to meters of
+ * {@link MetricsExtension} registry:
+ * <ul>
+ *     <li>{@code jfr.gc.pause} - timer of GC pauses, tagged with collector name</li>
+ *     <li>{@code jfr.monitor.enter} - timer of contended monitor enters, tagged with monitor class</li>
+ *     <li>{@code jfr.thread.park} - timer of thread parks, tagged with parked on class</li>
+ *     <li>{@code jfr.allocation} - summary of sampled allocated bytes, tagged with allocated class and allocation site</li>
+ * </ul>
+ * Recording is JVM-wide, so it also contains events of tests executed in parallel.
+ * Recording file is kept in {@code target/jfr} if the test fails or {@link JfrRecording#keep()} is set. File is named
+ * after unique id of the test, so every invocation of repeated and parameterized tests has its own recording.
+ */
+@Slf4j
+public class JfrRecordingExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback, AfterEachCallback {
+    public static final String GC_PAUSE = "jfr.gc.pause";
+    public static final String MONITOR_ENTER = "jfr.monitor.enter";
+    public static final String THREAD_PARK = "jfr.thread.park";
+    public static final String ALLOCATION = "jfr.allocation";
+
+    private static final Path RECORDINGS_DIRECTORY = Path.of("target", "jfr");
+    private static final String UNKNOWN = "unknown";
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(JfrRecordingExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) throws Exception {
+        JfrRecording settings = findSettings(context);
+        Duration threshold = Duration.ofMillis(settings.thresholdMillis());
+
+        Recording recording = new Recording();
+        recording.setName(context.getUniqueId());
+        recording.enable("jdk.GarbageCollection");
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(threshold).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(threshold).withStackTrace();
+        recording.enable("jdk.ObjectAllocationSample").withStackTrace();
+        context.getStore(NAMESPACE).put(Recording.class, recording);
+        recording.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) throws Exception {
+        Path file = recordingFile(context);
+        try (Recording recording = context.getStore(NAMESPACE).remove(Recording.class, Recording.class)) {
+            recording.stop();
+            Files.createDirectories(RECORDINGS_DIRECTORY);
+            recording.dump(file);
+        }
+        context.getStore(NAMESPACE).put(Path.class, file);
+
+        Optional<MeterRegistry> registry = MetricsExtension.findRegistry(context);
+        if (registry.isEmpty()) {
+            log.warn("MetricsExtension is not registered for {}, JFR events are not converted to meters", context.getDisplayName());
+            return;
+        }
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            record(registry.get(), event);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws Exception {
+        Path file = context.getStore(NAMESPACE).remove(Path.class, Path.class);
+        if (file == null) {
+            return;
+        }
+        if (context.getExecutionException().isPresent() || findSettings(context).keep()) {
+            log.info("JFR recording of {} is saved to {}", context.getDisplayName(), file.toAbsolutePath());
+        } else {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * I.e. {@code target/jfr/com.example.SomeTest.someTest__.#2.jfr} for the second invocation of a repeated test.
+     */
+    static Path recordingFile(ExtensionContext context) {
+        // Engine segment is skipped, it is the same for all tests
+        String name = UniqueId.parse(context.getUniqueId()).getSegments().stream()
+                .skip(1)
+                .map(UniqueId.Segment::getValue)
+                .collect(Collectors.joining("."));
+        return RECORDINGS_DIRECTORY.resolve(name.replaceAll("[^\\w.$#-]", "_") + ".jfr");
+    }
+
+    private static void record(MeterRegistry registry, RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.GarbageCollection" -> Timer.builder(GC_PAUSE)
+                    .tag("name", Optional.ofNullable(event.getString("name")).orElse(UNKNOWN))
+                    .register(registry)
+                    .record(event.getDuration("sumOfPauses"));
+            case "jdk.JavaMonitorEnter" -> Timer.builder(MONITOR_ENTER)
+                    .tag("class", className(event.getClass("monitorClass")))
+                    .register(registry)
+                    .record(event.getDuration());
+            case "jdk.ThreadPark" -> Timer.builder(THREAD_PARK)
+                    .tag("class", className(event.getClass("parkedClass")))
+                    .register(registry)
+                    .record(event.getDuration());
+            case "jdk.ObjectAllocationSample" -> DistributionSummary.builder(ALLOCATION)
+                    .baseUnit("bytes")
+                    .tag("class", className(event.getClass("objectClass")))
+                    .tag("site", allocationSite(event.getStackTrace()))
+                    .register(registry)
+                    .record(event.getLong("weight"));
+            default -> log.debug("Unexpected JFR event {}", event.getEventType().getName());
+        }
+    }
+
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass == null ? UNKNOWN : recordedClass.getName();
+    }
+
+    private static String allocationSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return UNKNOWN;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .findFirst()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .orElse(UNKNOWN);
+    }
+
+    private static JfrRecording findSettings(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), JfrRecording.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), JfrRecording.class))
+                .orElseThrow(() -> new IllegalStateException("@JfrRecording is not found for " + context.getDisplayName()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends snapshot of test registry as a single json line to a file:
+ * <pre>
+ * {"timestamp":"...","testClass":"...","testMethod":"...","displayName":"...","meters":[{"name":"...","type":"TIMER","tags":{...},"measurements":{"COUNT":1.0,...}}]}
+ * </pre>
+ * Snapshot is taken in the test thread, serialization and writing are done by a single background thread.
+ * The file is flushed and closed by {@link #close()} or on JVM shutdown.
+ */
+@Slf4j
+class MetricsExporter implements AutoCloseable {
+    private static final ObjectWriter WRITER = new ObjectMapper().writer();
+
+    private final Path file;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-exporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BufferedWriter writer;
+
+    MetricsExporter(Path file) {
+        this.file = file;
+    }
+
+    void export(String testClass, String testMethod, String displayName, MeterRegistry registry) {
+        List<MeterSnapshot> meters = new ArrayList<>();
+        for (Meter meter : registry.getMeters()) {
+            meters.add(MeterSnapshot.of(meter));
+        }
+        if (meters.isEmpty()) {
+            return;
+        }
+        TestSnapshot snapshot = new TestSnapshot(Instant.now().toString(), testClass, testMethod, displayName, meters);
+        executor.execute(() -> write(snapshot));
+    }
+
+    private void write(TestSnapshot snapshot) {
+        try {
+            if (writer == null) {
+                if (file.toAbsolutePath().getParent() != null) {
+                    Files.createDirectories(file.toAbsolutePath().getParent());
+                }
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(WRITER.writeValueAsString(snapshot));
+            writer.newLine();
+        } catch (IOException e) {
+            log.error("Failed to export metrics of {}.{} to {}", snapshot.getTestClass(), snapshot.getTestMethod(), file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.execute(() -> {
+            try {
+                if (writer != null) {
+                    writer.close();
+                    writer = null;
+                }
+            } catch (IOException e) {
+                log.error("Failed to close metrics export file {}", file, e);
+            }
+        });
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Metrics export to {} did not complete in time", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Value
+    static class TestSnapshot {
+        String timestamp;
+        String testClass;
+        String testMethod;
+        String displayName;
+        List<MeterSnapshot> meters;
+    }
+
+    @Value
+    static class MeterSnapshot {
+        String name;
+        String type;
+        Map<String, String> tags;
+        Map<String, Double> measurements;
+
+        static MeterSnapshot of(Meter meter) {
+            Map<String, String> tags = new LinkedHashMap<>();
+            for (Tag tag : meter.getId().getTagsAsIterable()) {
+                tags.put(tag.getKey(), tag.getValue());
+            }
+            Map<String, Double> measurements = new LinkedHashMap<>();
+            for (Measurement measurement : meter.measure()) {
+                measurements.put(measurement.getStatistic().name(), measurement.getValue());
+            }
+            return new MeterSnapshot(meter.getId().getName(), meter.getId().getType().name(), tags, measurements);
+        }
+    }
+}
@@ -6,22 +6,124 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.extension.*;
 
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Provides every test with its own {@link MeterRegistry}.
+ * <p>
+ * Meters recorded through {@link Metrics#globalRegistry} are routed to the registry of the test that records them,
+ * so tests can run in parallel. Registry is not inherited by other threads: work executed by threads or thread pools
+ * should be wrapped with {@link #wrap(Runnable)}, {@link #wrap(Callable)} or {@link #wrap(Executor)},
+ * unless only one test is running at a time. Gauges and function meters can be registered through global registry only
+ * while no other test is running (see {@link RoutingMeterRegistry}), otherwise they have to be registered in the test
+ * registry directly.
+ * <p>
+ * With {@code -Dmetrics.export.file=<path>} snapshot of every test registry is appended to given NDJSON file before
+ * it is cleared, see {@link MetricsExporter}.
+ */
 @Slf4j
 public class MetricsExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(MetricsExtension.class);
     private static final ThreadLocal<MeterRegistry> REGISTRY = new ThreadLocal<>();
+    private static final Set<MeterRegistry> ACTIVE_REGISTRIES = ConcurrentHashMap.newKeySet();
+    private static final RoutingMeterRegistry ROUTING_REGISTRY = new RoutingMeterRegistry(MetricsExtension::currentRegistry, ACTIVE_REGISTRIES::size, Metrics.globalRegistry);
+    private static final Optional<MetricsExporter> EXPORTER = Optional
+            .ofNullable(System.getProperty("metrics.export.file"))
+            .map(file -> new MetricsExporter(Path.of(file)));
+
+    static {
+        Metrics.globalRegistry.add(ROUTING_REGISTRY);
+        EXPORTER.ifPresent(exporter -> Runtime.getRuntime().addShutdownHook(new Thread(exporter::close)));
+    }
 
     @Override
     public void beforeEach(ExtensionContext context) throws Exception {
-        REGISTRY.set(new SimpleMeterRegistry());
-        Metrics.globalRegistry.add(REGISTRY.get());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        context.getStore(NAMESPACE).put(MeterRegistry.class, registry);
+        ACTIVE_REGISTRIES.add(registry);
+        REGISTRY.set(registry);
     }
 
     @Override
     public void afterEach(ExtensionContext context) throws Exception {
-        Metrics.globalRegistry.clear();
-        Metrics.globalRegistry.remove(REGISTRY.get());
-        REGISTRY.get().clear();
+        MeterRegistry registry = registry(context);
+        ACTIVE_REGISTRIES.remove(registry);
+        ROUTING_REGISTRY.release(registry);
         REGISTRY.remove();
+        EXPORTER.ifPresent(exporter -> exporter.export(
+                context.getRequiredTestClass().getName(),
+                context.getRequiredTestMethod().getName(),
+                context.getDisplayName(),
+                registry
+        ));
+        registry.clear();
+    }
+
+    /**
+     * Registry of the test, available to other extensions.
+     */
+    public static MeterRegistry registry(ExtensionContext context) {
+        return findRegistry(context)
+                .orElseThrow(() -> new IllegalStateException("MetricsExtension is not registered for " + context.getDisplayName()));
+    }
+
+    static Optional<MeterRegistry> findRegistry(ExtensionContext context) {
+        return Optional.ofNullable(context.getStore(NAMESPACE).get(MeterRegistry.class, MeterRegistry.class));
+    }
+
+    /**
+     * Registry of the test that runs in (or propagated its registry to) current thread.
+     * If it is unknown and only one test is running - registry of that test.
+     */
+    public static Optional<MeterRegistry> currentRegistry() {
+        MeterRegistry registry = REGISTRY.get();
+        if (registry != null && ACTIVE_REGISTRIES.contains(registry)) {
+            return Optional.of(registry);
+        }
+        Iterator<MeterRegistry> active = ACTIVE_REGISTRIES.iterator();
+        if (active.hasNext()) {
+            MeterRegistry single = active.next();
+            if (!active.hasNext()) {
+                return Optional.of(single);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static Runnable wrap(Runnable runnable) {
+        MeterRegistry registry = currentRegistry().orElse(null);
+        return () -> {
+            MeterRegistry previous = REGISTRY.get();
+            REGISTRY.set(registry);
+            try {
+                runnable.run();
+            } finally {
+                REGISTRY.set(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> callable) {
+        MeterRegistry registry = currentRegistry().orElse(null);
+        return () -> {
+            MeterRegistry previous = REGISTRY.get();
+            REGISTRY.set(registry);
+            try {
+                return callable.call();
+            } finally {
+                REGISTRY.set(previous);
+            }
+        };
+    }
+
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
     }
 
     @Override
@@ -36,6 +138,6 @@ public class MetricsExtension implements BeforeEachCallback, AfterEachCallback,
 
     @Override
     public MeterRegistry resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
-        return REGISTRY.get();
+        return registry(extensionContext);
     }
 }
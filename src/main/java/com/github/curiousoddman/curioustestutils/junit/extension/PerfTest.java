@@ -0,0 +1,34 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs test body {@link #warmup()} times without measuring and then {@link #iterations()} times measuring each run.
+ * Statistics are compared with baseline json file, see {@link PerfTestExtension}.
+ * {@code @BeforeEach} and {@code @AfterEach} methods are executed once around all runs.
+ */
+@Test
+@ExtendWith(PerfTestExtension.class)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PerfTest {
+    int warmup() default 5;
+
+    int iterations() default 50;
+
+    /**
+     * Path to baseline file relative to {@code src/test/resources}, {@code perf/<TestClass>/<testMethod>.json} by default.
+     */
+    String baseline() default "";
+
+    /**
+     * Relative tolerance for timing statistics.
+     */
+    double tolerance() default 0.25;
+}
@@ -0,0 +1,112 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import com.github.curiousoddman.curioustestutils.json.JsonTestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes {@link PerfTest} methods repeatedly and compares timing statistics with baseline json file:
+ * <pre>
+ * {"iterations": 50, "mean": 1.234, "p50": 1.1, "p90": 1.9}
+ * </pre>
+ * Times are in milliseconds. Iterations must match exactly, timings must not exceed baseline by more than
+ * {@link PerfTest#tolerance()}. Faster runs always pass, so that the check is not flaky on idle machines.
+ * Missing or failed baseline is overwritten with {@code -Doverwrite.json.on.failed.comparison=true}.
+ * <p>
+ * Each run is recorded to {@code perf.test} timer of {@link MetricsExtension} registry, if it is registered for the test.
+ */
+@Slf4j
+public class PerfTestExtension implements InvocationInterceptor {
+    public static final String TIMER_NAME = "perf.test";
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+        Method method = invocationContext.getExecutable();
+        PerfTest perfTest = AnnotationSupport.findAnnotation(method, PerfTest.class)
+                .orElseThrow(() -> new IllegalStateException("@PerfTest is not found on " + method));
+        if (perfTest.iterations() < 1 || perfTest.warmup() < 0) {
+            throw new IllegalArgumentException("Invalid @PerfTest configuration on " + method + ": " + perfTest);
+        }
+
+        for (int i = 0; i < perfTest.warmup(); i++) {
+            ReflectiveInvocations.invoke(invocationContext);
+        }
+
+        long[] samples = new long[perfTest.iterations()];
+        for (int i = 0; i < samples.length - 1; i++) {
+            long start = System.nanoTime();
+            ReflectiveInvocations.invoke(invocationContext);
+            samples[i] = System.nanoTime() - start;
+        }
+        long start = System.nanoTime();
+        invocation.proceed();
+        samples[samples.length - 1] = System.nanoTime() - start;
+
+        MeterRegistry registry = MetricsExtension.findRegistry(extensionContext).orElseGet(SimpleMeterRegistry::new);
+        Timer timer = Timer.builder(TIMER_NAME)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .register(registry);
+        for (long sample : samples) {
+            timer.record(sample, TimeUnit.NANOSECONDS);
+        }
+
+        PerfResult result = PerfResult.of(samples);
+        log.info("{}.{}: {}", method.getDeclaringClass().getSimpleName(), method.getName(), result);
+        assertWithinBaseline(baselinePath(perfTest, method), result, perfTest.tolerance());
+    }
+
+    static void assertWithinBaseline(String baselinePath, PerfResult result, double tolerance) {
+        // Baseline of sub-microsecond operations is rounded to 0
+        JsonTestUtils.assertJsonEqualsAtMost(baselinePath, result, tolerance, PerfResult.RESOLUTION_MILLIS, "mean", "p50", "p90");
+    }
+
+    private static String baselinePath(PerfTest perfTest, Method method) {
+        return perfTest.baseline().isEmpty()
+                ? "perf/" + method.getDeclaringClass().getSimpleName() + "/" + method.getName() + ".json"
+                : perfTest.baseline();
+    }
+
+    @Value
+    static class PerfResult {
+        /**
+         * Values are rounded to microseconds.
+         */
+        static final double RESOLUTION_MILLIS = 0.001;
+
+        int iterations;
+        double mean;
+        double p50;
+        double p90;
+
+        static PerfResult of(long[] samples) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            return new PerfResult(
+                    sorted.length,
+                    toMillis(Arrays.stream(sorted).average().orElse(0)),
+                    toMillis(percentile(sorted, 0.5)),
+                    toMillis(percentile(sorted, 0.9))
+            );
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+        }
+
+        private static double toMillis(double nanos) {
+            return Math.round(nanos / 1_000) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import lombok.experimental.UtilityClass;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Additional invocations of intercepted test method, beside the one that is executed by JUnit.
+ */
+@UtilityClass
+class ReflectiveInvocations {
+    static void invoke(ReflectiveInvocationContext<Method> invocationContext) throws Throwable {
+        Method method = invocationContext.getExecutable();
+        method.setAccessible(true);
+        try {
+            method.invoke(invocationContext.getTarget().orElse(null), invocationContext.getArguments().toArray());
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
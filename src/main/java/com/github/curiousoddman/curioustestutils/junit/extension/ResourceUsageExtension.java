@@ -0,0 +1,98 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bytes allocated and CPU time consumed by the test thread while test method is executed.
+ * <p>
+ * Usage is recorded to {@code test.allocated.bytes} and {@code test.cpu.time} meters of {@link MetricsExtension}
+ * registry (if it is registered) and verified against {@link AllocationBudget} and {@link CpuTimeBudget}.
+ * Work done by other threads is not accounted.
+ */
+@Slf4j
+public class ResourceUsageExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    public static final String ALLOCATED_BYTES = "test.allocated.bytes";
+    public static final String CPU_TIME = "test.cpu.time";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ResourceUsageExtension.class);
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) throws Exception {
+        context.getStore(NAMESPACE).put(Usage.class, Usage.current());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) throws Exception {
+        Usage usage = Usage.current().minus(context.getStore(NAMESPACE).remove(Usage.class, Usage.class));
+        String testClass = context.getRequiredTestClass().getSimpleName();
+        String testMethod = context.getRequiredTestMethod().getName();
+        log.info("{}.{}: allocated {} bytes, cpu time {} ms", testClass, testMethod, usage.getAllocatedBytes(), TimeUnit.NANOSECONDS.toMillis(usage.getCpuTimeNanos()));
+
+        Optional<MeterRegistry> registry = MetricsExtension.findRegistry(context);
+        if (registry.isPresent()) {
+            DistributionSummary.builder(ALLOCATED_BYTES)
+                    .baseUnit("bytes")
+                    .tag("class", testClass)
+                    .tag("method", testMethod)
+                    .register(registry.get())
+                    .record(usage.getAllocatedBytes());
+            Timer.builder(CPU_TIME)
+                    .tag("class", testClass)
+                    .tag("method", testMethod)
+                    .register(registry.get())
+                    .record(usage.getCpuTimeNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        verifyBudgets(findBudget(context, AllocationBudget.class), findBudget(context, CpuTimeBudget.class), usage);
+    }
+
+    static void verifyBudgets(Optional<AllocationBudget> allocationBudget, Optional<CpuTimeBudget> cpuTimeBudget, Usage usage) {
+        List<String> violations = new ArrayList<>();
+        allocationBudget
+                .filter(budget -> usage.getAllocatedBytes() > budget.maxBytes())
+                .ifPresent(budget -> violations.add("allocated " + usage.getAllocatedBytes() + " bytes > " + budget.maxBytes() + " bytes"));
+        cpuTimeBudget
+                .filter(budget -> usage.getCpuTimeNanos() > TimeUnit.MILLISECONDS.toNanos(budget.maxMillis()))
+                .ifPresent(budget -> violations.add("cpu time " + TimeUnit.NANOSECONDS.toMillis(usage.getCpuTimeNanos()) + " ms > " + budget.maxMillis() + " ms"));
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Test is out of budget: " + String.join(", ", violations));
+        }
+    }
+
+    private static <A extends Annotation> Optional<A> findBudget(ExtensionContext context, Class<A> annotationType) {
+        Optional<A> methodBudget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), annotationType);
+        return methodBudget.isPresent()
+                ? methodBudget
+                : AnnotationSupport.findAnnotation(context.getRequiredTestClass(), annotationType);
+    }
+
+    @Value
+    static class Usage {
+        long allocatedBytes;
+        long cpuTimeNanos;
+
+        static Usage current() {
+            return new Usage(THREAD_MX_BEAN.getCurrentThreadAllocatedBytes(), THREAD_MX_BEAN.getCurrentThreadCpuTime());
+        }
+
+        Usage minus(Usage start) {
+            return new Usage(allocatedBytes - start.allocatedBytes, cpuTimeNanos - start.cpuTimeNanos);
+        }
+    }
+}
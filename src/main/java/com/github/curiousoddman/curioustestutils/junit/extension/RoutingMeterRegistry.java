@@ -0,0 +1,410 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.noop.*;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registry that is added to composite registry (i.e. {@link Metrics#globalRegistry}) once and forwards every recording to the registry of the
+ * test that is currently running (see {@link MetricsExtension#currentRegistry()}).
+ * <p>
+ * Counters, timers, distribution summaries and long task timers are routed on every recording to the meter that is
+ * registered in the target registry once and cached until the test releases it.
+ * Gauges and function meters observe an object, so they are registered in the registry of the test that created them,
+ * and are removed from global registry when that test finishes. Global registry keeps one meter per id and does not
+ * consult this registry when the id is registered again, so a gauge registered by one test would be silently shared
+ * with any other test running at the same time. That is why registering them while several tests are running fails.
+ */
+class RoutingMeterRegistry extends MeterRegistry {
+    private final Supplier<Optional<MeterRegistry>> current;
+    private final IntSupplier runningTests;
+    private final CompositeMeterRegistry parent;
+    private final Map<MeterRegistry, Set<Meter.Id>> observingMeters = new ConcurrentHashMap<>();
+
+    RoutingMeterRegistry(Supplier<Optional<MeterRegistry>> current, IntSupplier runningTests, CompositeMeterRegistry parent) {
+        super(Clock.SYSTEM);
+        this.current = current;
+        this.runningTests = runningTests;
+        this.parent = parent;
+    }
+
+    /**
+     * Forget gauges and function meters registered by the test that owned given registry.
+     */
+    void release(MeterRegistry registry) {
+        for (Meter meter : getMeters()) {
+            if (meter instanceof RoutingMeter routingMeter) {
+                routingMeter.release(registry);
+            }
+        }
+        Set<Meter.Id> ids = observingMeters.remove(registry);
+        if (ids != null) {
+            for (Meter.Id id : ids) {
+                parent.remove(id);
+                remove(id);
+            }
+        }
+    }
+
+    @Override
+    protected Counter newCounter(Meter.Id id) {
+        return new RoutingCounter(id, route(registry -> Counter
+                .builder(id.getName())
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .baseUnit(id.getBaseUnit())
+                .register(registry), new NoopCounter(id)));
+    }
+
+    @Override
+    protected Timer newTimer(Meter.Id id, DistributionStatisticConfig config, PauseDetector pauseDetector) {
+        return new RoutingTimer(id, route(registry -> Timer
+                .builder(id.getName())
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .publishPercentiles(config.getPercentiles())
+                .percentilePrecision(config.getPercentilePrecision())
+                .publishPercentileHistogram(config.isPercentileHistogram())
+                .serviceLevelObjectives(toDurations(config.getServiceLevelObjectiveBoundaries()))
+                .minimumExpectedValue(toDuration(config.getMinimumExpectedValue()))
+                .maximumExpectedValue(toDuration(config.getMaximumExpectedValue()))
+                .distributionStatisticExpiry(config.getExpiry())
+                .distributionStatisticBufferLength(config.getBufferLength())
+                .register(registry), new NoopTimer(id)));
+    }
+
+    @Override
+    protected DistributionSummary newDistributionSummary(Meter.Id id, DistributionStatisticConfig config, double scale) {
+        return new RoutingDistributionSummary(id, route(registry -> DistributionSummary
+                .builder(id.getName())
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .baseUnit(id.getBaseUnit())
+                .publishPercentiles(config.getPercentiles())
+                .percentilePrecision(config.getPercentilePrecision())
+                .publishPercentileHistogram(config.isPercentileHistogram())
+                .serviceLevelObjectives(config.getServiceLevelObjectiveBoundaries())
+                .minimumExpectedValue(config.getMinimumExpectedValue())
+                .maximumExpectedValue(config.getMaximumExpectedValue())
+                .distributionStatisticExpiry(config.getExpiry())
+                .distributionStatisticBufferLength(config.getBufferLength())
+                .scale(scale)
+                .register(registry), new NoopDistributionSummary(id)));
+    }
+
+    @Override
+    protected LongTaskTimer newLongTaskTimer(Meter.Id id, DistributionStatisticConfig config) {
+        return new RoutingLongTaskTimer(id, route(registry -> LongTaskTimer
+                .builder(id.getName())
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .publishPercentiles(config.getPercentiles())
+                .percentilePrecision(config.getPercentilePrecision())
+                .publishPercentileHistogram(config.isPercentileHistogram())
+                .serviceLevelObjectives(toDurations(config.getServiceLevelObjectiveBoundaries()))
+                .minimumExpectedValue(toDuration(config.getMinimumExpectedValue()))
+                .maximumExpectedValue(toDuration(config.getMaximumExpectedValue()))
+                .distributionStatisticExpiry(config.getExpiry())
+                .distributionStatisticBufferLength(config.getBufferLength())
+                .register(registry), new NoopLongTaskTimer(id)));
+    }
+
+    @Override
+    protected <T> Gauge newGauge(Meter.Id id, T obj, ToDoubleFunction<T> valueFunction) {
+        return observe(id, registry -> Gauge
+                .builder(id.getName(), obj, valueFunction)
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .baseUnit(id.getBaseUnit())
+                .register(registry), new NoopGauge(id));
+    }
+
+    @Override
+    protected <T> TimeGauge newTimeGauge(Meter.Id id, T obj, TimeUnit valueFunctionUnit, ToDoubleFunction<T> valueFunction) {
+        return observe(id, registry -> TimeGauge
+                .builder(id.getName(), obj, valueFunctionUnit, valueFunction)
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .register(registry), new NoopTimeGauge(id));
+    }
+
+    @Override
+    protected <T> FunctionCounter newFunctionCounter(Meter.Id id, T obj, ToDoubleFunction<T> countFunction) {
+        return observe(id, registry -> FunctionCounter
+                .builder(id.getName(), obj, countFunction)
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .baseUnit(id.getBaseUnit())
+                .register(registry), new NoopFunctionCounter(id));
+    }
+
+    @Override
+    protected <T> FunctionTimer newFunctionTimer(Meter.Id id, T obj, ToLongFunction<T> countFunction, ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit) {
+        return observe(id, registry -> FunctionTimer
+                .builder(id.getName(), obj, countFunction, totalTimeFunction, totalTimeFunctionUnit)
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .register(registry), new NoopFunctionTimer(id));
+    }
+
+    @Override
+    protected Meter newMeter(Meter.Id id, Meter.Type type, Iterable<Measurement> measurements) {
+        return observe(id, registry -> Meter
+                .builder(id.getName(), type, measurements)
+                .tags(id.getTagsAsIterable())
+                .description(id.getDescription())
+                .baseUnit(id.getBaseUnit())
+                .register(registry), new NoopMeter(id));
+    }
+
+    @Override
+    protected TimeUnit getBaseTimeUnit() {
+        return TimeUnit.SECONDS;
+    }
+
+    @Override
+    protected DistributionStatisticConfig defaultHistogramConfig() {
+        // only explicitly configured values are forwarded, defaults are taken from the target registry
+        return DistributionStatisticConfig.NONE;
+    }
+
+    private <M extends Meter> Route<M> route(Function<MeterRegistry, M> register, M noop) {
+        return new Route<>(register, noop);
+    }
+
+    private <M extends Meter> M observe(Meter.Id id, Function<MeterRegistry, M> register, M noop) {
+        Optional<MeterRegistry> registry = current.get();
+        if (registry.isEmpty()) {
+            return noop;
+        }
+        int running = runningTests.getAsInt();
+        if (running > 1) {
+            throw new IllegalStateException("Gauge or function meter " + id + " is registered through global registry while "
+                                            + running + " tests are running, so it would be shared by them. "
+                                            + "Register it in the test registry or run the test in isolation (i.e. @Isolated)");
+        }
+        observingMeters.computeIfAbsent(registry.get(), r -> ConcurrentHashMap.newKeySet()).add(id);
+        return register.apply(registry.get());
+    }
+
+    private static Duration toDuration(Double nanos) {
+        return nanos == null ? null : Duration.ofNanos(nanos.longValue());
+    }
+
+    private static Duration[] toDurations(double[] nanos) {
+        return nanos == null ? null : Arrays.stream(nanos).mapToObj(value -> Duration.ofNanos((long) value)).toArray(Duration[]::new);
+    }
+
+    /**
+     * Meter of the current test registry, registered on first use.
+     */
+    @RequiredArgsConstructor
+    private class Route<M extends Meter> implements Supplier<M> {
+        private final Function<MeterRegistry, M> register;
+        private final M noop;
+        private final Map<MeterRegistry, M> targets = new ConcurrentHashMap<>();
+
+        @Override
+        public M get() {
+            return current.get()
+                    .map(registry -> targets.computeIfAbsent(registry, register))
+                    .orElse(noop);
+        }
+    }
+
+    private interface RoutingMeter {
+        void release(MeterRegistry registry);
+    }
+
+    @RequiredArgsConstructor
+    private static class RoutingCounter implements Counter, RoutingMeter {
+        private final Meter.Id id;
+        private final Route<Counter> target;
+
+        @Override
+        public void increment(double amount) {
+            target.get().increment(amount);
+        }
+
+        @Override
+        public double count() {
+            return target.get().count();
+        }
+
+        @Override
+        public Id getId() {
+            return id;
+        }
+
+        @Override
+        public void release(MeterRegistry registry) {
+            target.targets.remove(registry);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class RoutingTimer implements Timer, RoutingMeter {
+        private final Meter.Id id;
+        private final Route<Timer> target;
+
+        @Override
+        public void record(long amount, TimeUnit unit) {
+            target.get().record(amount, unit);
+        }
+
+        @Override
+        public <T> T record(Supplier<T> f) {
+            return target.get().record(f);
+        }
+
+        @Override
+        public <T> T recordCallable(Callable<T> f) throws Exception {
+            return target.get().recordCallable(f);
+        }
+
+        @Override
+        public void record(Runnable f) {
+            target.get().record(f);
+        }
+
+        @Override
+        public long count() {
+            return target.get().count();
+        }
+
+        @Override
+        public double totalTime(TimeUnit unit) {
+            return target.get().totalTime(unit);
+        }
+
+        @Override
+        public double max(TimeUnit unit) {
+            return target.get().max(unit);
+        }
+
+        @Override
+        public TimeUnit baseTimeUnit() {
+            return target.get().baseTimeUnit();
+        }
+
+        @Override
+        public HistogramSnapshot takeSnapshot() {
+            return target.get().takeSnapshot();
+        }
+
+        @Override
+        public Id getId() {
+            return id;
+        }
+
+        @Override
+        public void release(MeterRegistry registry) {
+            target.targets.remove(registry);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class RoutingDistributionSummary implements DistributionSummary, RoutingMeter {
+        private final Meter.Id id;
+        private final Route<DistributionSummary> target;
+
+        @Override
+        public void record(double amount) {
+            target.get().record(amount);
+        }
+
+        @Override
+        public long count() {
+            return target.get().count();
+        }
+
+        @Override
+        public double totalAmount() {
+            return target.get().totalAmount();
+        }
+
+        @Override
+        public double max() {
+            return target.get().max();
+        }
+
+        @Override
+        public HistogramSnapshot takeSnapshot() {
+            return target.get().takeSnapshot();
+        }
+
+        @Override
+        public Id getId() {
+            return id;
+        }
+
+        @Override
+        public void release(MeterRegistry registry) {
+            target.targets.remove(registry);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class RoutingLongTaskTimer implements LongTaskTimer, RoutingMeter {
+        private final Meter.Id id;
+        private final Route<LongTaskTimer> target;
+
+        @Override
+        public Sample start() {
+            return target.get().start();
+        }
+
+        @Override
+        public double duration(TimeUnit unit) {
+            return target.get().duration(unit);
+        }
+
+        @Override
+        public int activeTasks() {
+            return target.get().activeTasks();
+        }
+
+        @Override
+        public double max(TimeUnit unit) {
+            return target.get().max(unit);
+        }
+
+        @Override
+        public TimeUnit baseTimeUnit() {
+            return target.get().baseTimeUnit();
+        }
+
+        @Override
+        public HistogramSnapshot takeSnapshot() {
+            return target.get().takeSnapshot();
+        }
+
+        @Override
+        public Id getId() {
+            return id;
+        }
+
+        @Override
+        public void release(MeterRegistry registry) {
+            target.targets.remove(registry);
+        }
+    }
+}
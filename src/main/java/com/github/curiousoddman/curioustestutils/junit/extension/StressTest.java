@@ -0,0 +1,46 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Executes test body concurrently with each of {@link #threads()} thread counts, see {@link StressTestExtension}.
+ * {@code @BeforeEach} and {@code @AfterEach} methods are executed once around all runs.
+ */
+@Test
+@ExtendWith(StressTestExtension.class)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StressTest {
+    int[] threads() default {1, 2, 4};
+
+    /**
+     * Number of test body executions, shared by all threads of a run. Ignored if {@link #durationMillis()} is set.
+     */
+    long operations() default 10_000;
+
+    /**
+     * Duration of each run.
+     */
+    long durationMillis() default 0;
+
+    /**
+     * Use virtual threads instead of platform threads, requires Java 21+.
+     */
+    boolean virtualThreads() default false;
+
+    /**
+     * Minimal operations per second with the largest thread count.
+     */
+    double minThroughput() default 0;
+
+    /**
+     * Minimal ratio of throughput to throughput of the smallest thread count multiplied by number of threads.
+     */
+    double minScalingEfficiency() default 0;
+}
@@ -0,0 +1,223 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes {@link StressTest} methods concurrently and reports throughput, scaling and contention for every thread count.
+ * <p>
+ * Meters recorded to {@link MetricsExtension} registry (if it is registered), all tagged with {@code threads}:
+ * <ul>
+ *     <li>{@code stress.operations} - counter of operations, additionally tagged with {@code thread} index</li>
+ *     <li>{@code stress.latency} - timer of single operation</li>
+ *     <li>{@code stress.blocked} - timer of time threads spent blocked on monitors (platform threads only)</li>
+ *     <li>{@code stress.throughput} - gauge of operations per second</li>
+ *     <li>{@code stress.scaling.efficiency} - gauge of throughput compared to linear scaling from the smallest thread count</li>
+ * </ul>
+ * The first failure of the test body stops the run and fails the test.
+ */
+@Slf4j
+public class StressTestExtension implements InvocationInterceptor {
+    public static final String OPERATIONS = "stress.operations";
+    public static final String LATENCY = "stress.latency";
+    public static final String BLOCKED = "stress.blocked";
+    public static final String THROUGHPUT = "stress.throughput";
+    public static final String SCALING_EFFICIENCY = "stress.scaling.efficiency";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    /**
+     * Contention monitoring is enabled while any stress test runs, previous setting is restored after the last one.
+     */
+    private static final Object CONTENTION_MONITORING_LOCK = new Object();
+    private static int contentionMonitoringUsers;
+    private static boolean contentionMonitoringWasEnabled;
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+        Method method = invocationContext.getExecutable();
+        StressTest stressTest = AnnotationSupport.findAnnotation(method, StressTest.class)
+                .orElseThrow(() -> new IllegalStateException("@StressTest is not found on " + method));
+        int[] threadCounts = Arrays.stream(stressTest.threads()).sorted().distinct().toArray();
+        if (threadCounts.length == 0 || threadCounts[0] < 1 || (stressTest.operations() < 1 && stressTest.durationMillis() < 1)) {
+            throw new IllegalArgumentException("Invalid @StressTest configuration on " + method + ": " + stressTest);
+        }
+        MeterRegistry registry = MetricsExtension.findRegistry(extensionContext).orElseGet(SimpleMeterRegistry::new);
+        List<RunResult> results = new ArrayList<>();
+        enableContentionMonitoring();
+        try {
+            for (int threads : threadCounts) {
+                RunResult result = run(stressTest, threads, invocationContext, registry);
+                double efficiency = result.scalingEfficiency(results.isEmpty() ? result : results.get(0));
+                Gauge.builder(THROUGHPUT, result::getThroughput).tag("threads", String.valueOf(threads)).strongReference(true).register(registry);
+                Gauge.builder(SCALING_EFFICIENCY, () -> efficiency).tag("threads", String.valueOf(threads)).strongReference(true).register(registry);
+                log.info("{}.{}: threads={}, operations={}, throughput={} ops/s, scaling efficiency={}, blocked={}%",
+                         method.getDeclaringClass().getSimpleName(), method.getName(), threads, result.getOperations(),
+                         String.format("%.1f", result.getThroughput()), String.format("%.2f", efficiency), String.format("%.1f", result.getBlockedRatio() * 100));
+                results.add(result);
+            }
+        } finally {
+            restoreContentionMonitoring();
+        }
+        invocation.skip();
+
+        verifyBudgets(stressTest, results);
+    }
+
+    private static void enableContentionMonitoring() {
+        if (!THREAD_MX_BEAN.isThreadContentionMonitoringSupported()) {
+            return;
+        }
+        synchronized (CONTENTION_MONITORING_LOCK) {
+            if (contentionMonitoringUsers++ == 0) {
+                contentionMonitoringWasEnabled = THREAD_MX_BEAN.isThreadContentionMonitoringEnabled();
+                THREAD_MX_BEAN.setThreadContentionMonitoringEnabled(true);
+            }
+        }
+    }
+
+    private static void restoreContentionMonitoring() {
+        if (!THREAD_MX_BEAN.isThreadContentionMonitoringSupported()) {
+            return;
+        }
+        synchronized (CONTENTION_MONITORING_LOCK) {
+            if (--contentionMonitoringUsers == 0) {
+                THREAD_MX_BEAN.setThreadContentionMonitoringEnabled(contentionMonitoringWasEnabled);
+            }
+        }
+    }
+
+    private static RunResult run(StressTest stressTest, int threads, ReflectiveInvocationContext<Method> invocationContext, MeterRegistry registry) throws Throwable {
+        String threadsTag = String.valueOf(threads);
+        Timer latency = Timer.builder(LATENCY).tag("threads", threadsTag).publishPercentiles(0.5, 0.99).register(registry);
+        Timer blocked = Timer.builder(BLOCKED).tag("threads", threadsTag).register(registry);
+        AtomicLong remainingOperations = new AtomicLong(stressTest.durationMillis() > 0 ? Long.MAX_VALUE : stressTest.operations());
+        AtomicBoolean failed = new AtomicBoolean();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = stressTest.virtualThreads() ? newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Counter operations = Counter.builder(OPERATIONS).tag("threads", threadsTag).tag("thread", String.valueOf(i)).register(registry);
+                futures.add(executor.submit(MetricsExtension.wrap(() -> {
+                    ThreadInfo before = THREAD_MX_BEAN.getThreadInfo(Thread.currentThread().getId());
+                    ready.countDown();
+                    start.await();
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(stressTest.durationMillis());
+                    while (!failed.get() && remainingOperations.getAndDecrement() > 0
+                           && (stressTest.durationMillis() == 0 || System.nanoTime() < deadline)) {
+                        long operationStart = System.nanoTime();
+                        try {
+                            ReflectiveInvocations.invoke(invocationContext);
+                        } catch (Throwable e) {
+                            failed.set(true);
+                            throw e instanceof Exception exception ? exception : new ExecutionException(e);
+                        }
+                        latency.record(System.nanoTime() - operationStart, TimeUnit.NANOSECONDS);
+                        operations.increment();
+                    }
+                    ThreadInfo after = THREAD_MX_BEAN.getThreadInfo(Thread.currentThread().getId());
+                    return before == null || after == null || before.getBlockedTime() < 0 ? -1 : after.getBlockedTime() - before.getBlockedTime();
+                })));
+            }
+            ready.await();
+            long startNanos = System.nanoTime();
+            start.countDown();
+
+            Throwable failure = null;
+            long blockedMillis = 0;
+            for (Future<Long> future : futures) {
+                try {
+                    long threadBlockedMillis = future.get();
+                    if (threadBlockedMillis >= 0) {
+                        blocked.record(threadBlockedMillis, TimeUnit.MILLISECONDS);
+                        blockedMillis += threadBlockedMillis;
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() instanceof ExecutionException ? e.getCause().getCause() : e.getCause();
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (failure != null) {
+                throw failure;
+            }
+            return new RunResult(threads, latency.count(), elapsedNanos, TimeUnit.MILLISECONDS.toNanos(blockedMillis));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void verifyBudgets(StressTest stressTest, List<RunResult> results) {
+        List<String> violations = new ArrayList<>();
+        RunResult largest = results.get(results.size() - 1);
+        if (largest.getThroughput() < stressTest.minThroughput()) {
+            violations.add(String.format("throughput with %d threads %.1f ops/s < %.1f ops/s", largest.getThreads(), largest.getThroughput(), stressTest.minThroughput()));
+        }
+        RunResult baseline = results.get(0);
+        for (RunResult result : results.subList(1, results.size())) {
+            double efficiency = result.scalingEfficiency(baseline);
+            if (efficiency < stressTest.minScalingEfficiency()) {
+                violations.add(String.format("scaling efficiency with %d threads %.2f < %.2f", result.getThreads(), efficiency, stressTest.minScalingEfficiency()));
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Stress test is out of budget: " + String.join(", ", violations));
+        }
+    }
+
+    @SneakyThrows
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads are not supported by Java " + Runtime.version().feature(), e);
+        }
+    }
+
+    @Value
+    static class RunResult {
+        int threads;
+        long operations;
+        long elapsedNanos;
+        long blockedNanos;
+
+        double getThroughput() {
+            return operations * 1e9 / elapsedNanos;
+        }
+
+        double scalingEfficiency(RunResult baseline) {
+            return getThroughput() / baseline.getThroughput() * baseline.getThreads() / threads;
+        }
+
+        double getBlockedRatio() {
+            return (double) blockedNanos / (elapsedNanos * threads);
+        }
+    }
+}
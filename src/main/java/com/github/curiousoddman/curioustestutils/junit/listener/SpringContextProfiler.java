@@ -0,0 +1,22 @@
+package com.github.curiousoddman.curioustestutils.junit.listener;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+/**
+ * Reports spring context start (i.e. for {@code @SpringBootTest}) to {@link SuiteProfiler}.
+ */
+public class SpringContextProfiler implements SpringApplicationRunListener {
+    public static final String PHASE = "spring.context.start";
+
+    public SpringContextProfiler(SpringApplication application, String[] args) {
+    }
+
+    @Override
+    public void started(ConfigurableApplicationContext context, Duration timeTaken) {
+        SuiteProfiler.recordPhase(PHASE, timeTaken);
+    }
+}
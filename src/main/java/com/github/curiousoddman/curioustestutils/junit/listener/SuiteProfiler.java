@@ -0,0 +1,268 @@
+package com.github.curiousoddman.curioustestutils.junit.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Test execution listener that records duration of every test class and test and of named phases inside them
+ * (spring context start, container start, database cleanup or anything reported with {@link #recordPhase}).
+ * <p>
+ * Registered automatically, but disabled unless {@code suite.profiler.enabled=true} is set as system property
+ * or in {@code junit-platform.properties}. When the test plan finishes, json report is written to
+ * {@code suite.profiler.report} ({@code target/suite-profile.json} by default) and {@code suite.profiler.top}
+ * (10 by default) slowest tests and classes are logged.
+ */
+@Slf4j
+public class SuiteProfiler implements TestExecutionListener {
+    public static final String ENABLED_PROPERTY = "suite.profiler.enabled";
+    public static final String REPORT_PROPERTY = "suite.profiler.report";
+    public static final String TOP_PROPERTY = "suite.profiler.top";
+
+    private static final String OUTSIDE_OF_TESTS = "<suite>";
+    private static final ThreadLocal<Deque<Node>> RUNNING_NODES = ThreadLocal.withInitial(ArrayDeque::new);
+    /**
+     * Profilers of launcher sessions that are running, the innermost first.
+     */
+    private static final Deque<SuiteProfiler> ACTIVE_PROFILERS = new ConcurrentLinkedDeque<>();
+
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+    private final Node suite = new Node(OUTSIDE_OF_TESTS, false);
+    private TestPlan testPlan;
+    private Path reportFile;
+    private int top;
+    private volatile boolean active;
+
+    /**
+     * Attribute duration of given phase to the test or test class that is executed in current thread.
+     * Does nothing if profiler is disabled.
+     */
+    public static void recordPhase(String phase, Duration duration) {
+        SuiteProfiler profiler = ACTIVE_PROFILERS.peekFirst();
+        if (profiler != null) {
+            Node node = RUNNING_NODES.get().peek();
+            (node == null ? profiler.suite : node).recordPhase(phase, duration.toNanos());
+        }
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (!testPlan.getConfigurationParameters().getBoolean(ENABLED_PROPERTY).orElse(false)) {
+            return;
+        }
+        reportFile = Path.of(testPlan.getConfigurationParameters().get(REPORT_PROPERTY).orElse("target/suite-profile.json"));
+        top = testPlan.getConfigurationParameters().get(TOP_PROPERTY, Integer::parseInt).orElse(10);
+        this.testPlan = testPlan;
+        suite.start();
+        active = true;
+        ACTIVE_PROFILERS.addFirst(this);
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (!active) {
+            return;
+        }
+        Optional<Node> created = nodeOf(testIdentifier);
+        if (created.isPresent()) {
+            Node node = created.get();
+            node.start();
+            nodes.put(testIdentifier.getUniqueId(), node);
+            RUNNING_NODES.get().push(node);
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Node node = nodes.get(testIdentifier.getUniqueId());
+        if (node != null) {
+            node.finish(testExecutionResult.getStatus().name());
+            RUNNING_NODES.get().remove(node);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (!active) {
+            return;
+        }
+        active = false;
+        ACTIVE_PROFILERS.remove(this);
+        suite.finish(null);
+
+        Report report = createReport();
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+            log.info("Suite profile is written to {}", reportFile.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Failed to write suite profile to {}", reportFile, e);
+        }
+        log.info("Suite profile, total {} ms\nSlowest tests:\n{}\nSlowest classes:\n{}\nPhases:\n{}",
+                 report.getTotalMillis(),
+                 summary(report.getTests()),
+                 summary(report.getClasses()),
+                 report.getPhases().entrySet().stream()
+                         .map(phase -> String.format("%10d ms %6d x  %s", phase.getValue().getMillis(), phase.getValue().getCount(), phase.getKey()))
+                         .collect(Collectors.joining("\n")));
+    }
+
+    private Report createReport() {
+        Map<String, PhaseReport> phases = new TreeMap<>();
+        List<NodeReport> classes = new ArrayList<>();
+        List<NodeReport> tests = new ArrayList<>();
+        for (Node node : concat(nodes.values(), suite)) {
+            node.phases.forEach((phase, timing) -> phases.merge(phase, timing.toReport(), PhaseReport::plus));
+            if (node != suite) {
+                (node.test ? tests : classes).add(node.toReport());
+            }
+        }
+        Comparator<NodeReport> slowestFirst = Comparator.comparingLong(NodeReport::getMillis).reversed();
+        classes.sort(slowestFirst);
+        tests.sort(slowestFirst);
+        NodeReport suiteReport = suite.toReport();
+        return new Report(suiteReport.getMillis(), phases, suiteReport.getPhases(), classes, tests);
+    }
+
+    private String summary(List<NodeReport> reports) {
+        return reports.stream()
+                .limit(top)
+                .map(report -> String.format("%10d ms  %s", report.getMillis(), report.getName()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Containers of test templates and test factories are not profiled, their invocations are reported as tests.
+     */
+    private Optional<Node> nodeOf(TestIdentifier testIdentifier) {
+        if (testIdentifier.isTest()) {
+            return testName(testIdentifier).map(name -> new Node(name, true));
+        }
+        if (testIdentifier.getSource().orElse(null) instanceof ClassSource classSource) {
+            return Optional.of(new Node(classSource.getClassName(), false));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * I.e. {@code SomeTest#someTest()} or {@code SomeTest#repeatedTest() repetition 1 of 2} for invocation of a template.
+     */
+    private Optional<String> testName(TestIdentifier test) {
+        String name = test.getDisplayName();
+        Optional<TestIdentifier> parent = testPlan.getParent(test);
+        while (parent.isPresent() && !(parent.get().getSource().orElse(null) instanceof ClassSource)) {
+            name = parent.get().getDisplayName() + " " + name;
+            parent = testPlan.getParent(parent.get());
+        }
+        TestSource source = parent.flatMap(TestIdentifier::getSource).or(test::getSource).orElse(null);
+        if (source instanceof ClassSource classSource) {
+            return Optional.of(classSource.getClassName() + "#" + name);
+        }
+        if (source instanceof MethodSource methodSource) {
+            return Optional.of(methodSource.getClassName() + "#" + name);
+        }
+        return Optional.empty();
+    }
+
+    private static List<Node> concat(Collection<Node> nodes, Node node) {
+        List<Node> all = new ArrayList<>(nodes);
+        all.add(node);
+        return all;
+    }
+
+    private static class Node {
+        private final String name;
+        private final boolean test;
+        private final Map<String, PhaseTiming> phases = new ConcurrentHashMap<>();
+        private long startNanos;
+        private long durationNanos;
+        private String status;
+
+        Node(String name, boolean test) {
+            this.name = name;
+            this.test = test;
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+        }
+
+        void finish(String status) {
+            this.durationNanos = System.nanoTime() - startNanos;
+            this.status = status;
+        }
+
+        void recordPhase(String phase, long nanos) {
+            PhaseTiming timing = phases.computeIfAbsent(phase, p -> new PhaseTiming());
+            timing.count.incrementAndGet();
+            timing.nanos.addAndGet(nanos);
+        }
+
+        NodeReport toReport() {
+            Map<String, PhaseReport> phaseReports = new TreeMap<>();
+            phases.forEach((phase, timing) -> phaseReports.put(phase, timing.toReport()));
+            return new NodeReport(name, TimeUnit.NANOSECONDS.toMillis(durationNanos), status, phaseReports);
+        }
+    }
+
+    private static class PhaseTiming {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+
+        PhaseReport toReport() {
+            return new PhaseReport(count.get(), TimeUnit.NANOSECONDS.toMillis(nanos.get()));
+        }
+    }
+
+    @Value
+    public static class Report {
+        long totalMillis;
+        /**
+         * Totals of all phases.
+         */
+        Map<String, PhaseReport> phases;
+        /**
+         * Phases recorded outside of test classes, i.e. in shared static initialization.
+         */
+        Map<String, PhaseReport> phasesOutsideOfTests;
+        List<NodeReport> classes;
+        List<NodeReport> tests;
+    }
+
+    @Value
+    public static class NodeReport {
+        String name;
+        long millis;
+        String status;
+        Map<String, PhaseReport> phases;
+    }
+
+    @Value
+    public static class PhaseReport {
+        long count;
+        long millis;
+
+        PhaseReport plus(PhaseReport other) {
+            return new PhaseReport(count + other.count, millis + other.millis);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.curiousoddman.curioustestutils.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Budget checks over a single snapshot of timer or distribution summary.
+ * All checks are collected and evaluated together by {@link #isWithinBudget()}, so tolerance applies to all of them
+ * regardless of where {@link #withTolerance(double)} is called in the chain.
+ * <p>
+ * Timer values are compared in nanoseconds, distribution summary values - in base units of the summary.
+ * Budgets are inclusive. Tolerance is relative: with tolerance {@code 0.1} value {@code 5.4} is within budget {@code 5}.
+ */
+@RequiredArgsConstructor
+public class DistributionBudgetAssert {
+    private final Meter.Id id;
+    private final HistogramSnapshot snapshot;
+    /**
+     * {@code false} for distribution summaries.
+     */
+    private final boolean timer;
+    private final List<String> violations = new ArrayList<>();
+    private final List<BudgetCheck> budgetChecks = new ArrayList<>();
+    private double tolerance;
+
+    public DistributionBudgetAssert withTolerance(double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    public DistributionBudgetAssert hasCount(long expected) {
+        if (snapshot.count() != expected) {
+            violations.add("count " + snapshot.count() + " != " + expected);
+        }
+        return this;
+    }
+
+    public DistributionBudgetAssert hasMeanAtMost(Duration budget) {
+        return hasMeanAtMost((double) budget.toNanos());
+    }
+
+    public DistributionBudgetAssert hasMeanAtMost(double budget) {
+        checkAtMost("mean", snapshot.mean(), budget);
+        return this;
+    }
+
+    public DistributionBudgetAssert hasMaxAtMost(Duration budget) {
+        return hasMaxAtMost((double) budget.toNanos());
+    }
+
+    public DistributionBudgetAssert hasMaxAtMost(double budget) {
+        checkAtMost("max", snapshot.max(), budget);
+        return this;
+    }
+
+    public DistributionBudgetAssert hasPercentileAtMost(double percentile, Duration budget) {
+        return hasPercentileAtMost(percentile, (double) budget.toNanos());
+    }
+
+    /**
+     * Percentile value is taken from published percentiles, or, if it is not published, estimated as an upper bound of
+     * histogram bucket that contains it.
+     */
+    public DistributionBudgetAssert hasPercentileAtMost(double percentile, double budget) {
+        checkAtMost(percentileName(percentile), percentileValue(percentile), budget);
+        return this;
+    }
+
+    public void isWithinBudget() {
+        List<String> violations = new ArrayList<>(this.violations);
+        for (BudgetCheck check : budgetChecks) {
+            if (check.actual() > check.budget() * (1 + tolerance)) {
+                violations.add(check.statistic() + " " + format(check.actual()) + " > " + format(check.budget())
+                               + (tolerance > 0 ? " (tolerance " + tolerance + ")" : ""));
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Meter " + id.getName() + id.getTags() + " is out of budget:\n\t"
+                                     + String.join("\n\t", violations)
+                                     + "\nActual distribution: " + describe());
+        }
+    }
+
+    private void checkAtMost(String statistic, double actual, double budget) {
+        budgetChecks.add(new BudgetCheck(statistic, actual, budget));
+    }
+
+    private double percentileValue(double percentile) {
+        for (ValueAtPercentile valueAtPercentile : snapshot.percentileValues()) {
+            if (Double.compare(valueAtPercentile.percentile(), percentile) == 0) {
+                return valueAtPercentile.value();
+            }
+        }
+
+        CountAtBucket[] buckets = snapshot.histogramCounts();
+        if (buckets.length == 0) {
+            throw new IllegalStateException("Percentile " + percentile + " is not published for " + id.getName()
+                                            + " and there is no histogram to estimate it. "
+                                            + "Use MeterBudgets.publishPercentiles() or configure meter with percentiles or service level objectives");
+        }
+        // bucket counts are cumulative
+        double rank = percentile * snapshot.count();
+        for (CountAtBucket bucket : buckets) {
+            if (bucket.count() >= rank) {
+                return bucket.bucket();
+            }
+        }
+        return snapshot.max();
+    }
+
+    private String describe() {
+        StringBuilder sb = new StringBuilder()
+                .append("count=").append(snapshot.count())
+                .append(", mean=").append(format(snapshot.mean()))
+                .append(", max=").append(format(snapshot.max()));
+        for (ValueAtPercentile valueAtPercentile : snapshot.percentileValues()) {
+            sb.append(", ").append(percentileName(valueAtPercentile.percentile())).append('=').append(format(valueAtPercentile.value()));
+        }
+        CountAtBucket[] buckets = snapshot.histogramCounts();
+        if (buckets.length > 0) {
+            sb.append(", histogram={");
+            for (int i = 0; i < buckets.length; i++) {
+                sb.append(i == 0 ? "" : ", ").append("<=").append(format(buckets[i].bucket())).append(':').append((long) buckets[i].count());
+            }
+            sb.append('}');
+        }
+        return sb.toString();
+    }
+
+    private String format(double value) {
+        if (!timer) {
+            return String.valueOf(value);
+        }
+        return String.format("%.3fms", value / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static String percentileName(double percentile) {
+        return "p" + String.valueOf(percentile * 100).replaceAll("\\.0$", "");
+    }
+
+    private record BudgetCheck(String statistic, double actual, double budget) {
+    }
+}
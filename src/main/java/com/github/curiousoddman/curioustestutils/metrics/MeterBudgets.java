@@ -0,0 +1,49 @@
+package com.github.curiousoddman.curioustestutils.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Performance budget assertions for timers and distribution summaries.
+ * <pre>
+ * MeterBudgets.assertTimer(meterRegistry, "my-timer")
+ *         .withTolerance(0.1)
+ *         .hasCount(1000)
+ *         .hasPercentileAtMost(0.99, Duration.ofMillis(5))
+ *         .hasMeanAtMost(Duration.ofMillis(2))
+ *         .isWithinBudget();
+ * </pre>
+ */
+@UtilityClass
+public class MeterBudgets {
+    public static DistributionBudgetAssert assertTimer(MeterRegistry registry, String name, String... tags) {
+        Timer timer = registry.get(name).tags(tags).timer();
+        return new DistributionBudgetAssert(timer.getId(), timer.takeSnapshot(), true);
+    }
+
+    public static DistributionBudgetAssert assertSummary(MeterRegistry registry, String name, String... tags) {
+        DistributionSummary summary = registry.get(name).tags(tags).summary();
+        return new DistributionBudgetAssert(summary.getId(), summary.takeSnapshot(), false);
+    }
+
+    /**
+     * Make all timers and distribution summaries registered in the registry after this call publish given percentiles,
+     * so that percentile budgets can be verified.
+     */
+    public static void publishPercentiles(MeterRegistry registry, double... percentiles) {
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(percentiles)
+                        .build()
+                        .merge(config);
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+/**
+ * How {@link TestCleanUpService} finds tables modified by a test.
+ */
+public enum ChangeDetection {
+	/**
+	 * Statement level triggers record modified tables in a tracking table. Precise, but adds a trigger call to every
+	 * modifying statement of code under test.
+	 */
+	TRIGGERS,
+	/**
+	 * Tuple counters of {@code pg_stat_user_tables} are compared with the ones captured after the previous cleanup, no
+	 * triggers are installed. Backends report statistics asynchronously, so before reading them every idle connection
+	 * of the HikariCP pool is asked to flush its pending statistics ({@code pg_stat_force_next_flush()}, PostgreSQL 15+).
+	 * Changes made through connections outside of the pool, or still held by the test, may be noticed only by the
+	 * next cleanup.
+	 */
+	STATISTICS
+}
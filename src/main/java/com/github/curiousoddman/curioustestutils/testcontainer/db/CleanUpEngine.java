@@ -0,0 +1,15 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+/**
+ * {@link DatabaseCleaner} used by {@link ContainerTest}.
+ */
+public enum CleanUpEngine {
+	/**
+	 * {@link TestCleanUpService} - modified tables are cleared.
+	 */
+	TABLES,
+	/**
+	 * {@link TemplateDatabaseCleaner} - tests work on copies of template database, each test gets a fresh copy.
+	 */
+	TEMPLATE_DATABASE
+}
@@ -0,0 +1,31 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+
+@Value
+@Builder
+public class CleanUpOptions {
+	/**
+	 * Tables with seed data. Their contents are captured on initialization and restored after every test that
+	 * modified them, instead of leaving them empty.
+	 */
+	@Builder.Default
+	Set<String> baselineTables = Set.of();
+	@Builder.Default
+	ChangeDetection changeDetection = ChangeDetection.TRIGGERS;
+	@Builder.Default
+	CleanUpStrategy cleanUpStrategy = CleanUpStrategy.TRUNCATE;
+	/**
+	 * With {@link CleanUpStrategy#ADAPTIVE} tables with more estimated rows are truncated, others - deleted from.
+	 */
+	@Builder.Default
+	long deleteThresholdRows = 1000;
+	/**
+	 * Maximum number of schemas cleaned up concurrently.
+	 */
+	@Builder.Default
+	int cleanUpThreads = 8;
+}
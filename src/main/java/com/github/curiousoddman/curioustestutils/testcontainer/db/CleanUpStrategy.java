@@ -0,0 +1,18 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+/**
+ * How {@link TestCleanUpService} clears modified tables.
+ */
+public enum CleanUpStrategy {
+	/**
+	 * All modified tables are truncated with a single {@code TRUNCATE ... CASCADE}.
+	 */
+	TRUNCATE,
+	/**
+	 * Tables with few rows are cleared with {@code DELETE}, larger ones are truncated. Tables referencing cleared ones
+	 * are cleared too.
+	 * TRUNCATE has a high fixed cost per table (exclusive lock, new relation files), which for tables holding a
+	 * handful of rows is higher than deleting them.
+	 */
+	ADAPTIVE
+}
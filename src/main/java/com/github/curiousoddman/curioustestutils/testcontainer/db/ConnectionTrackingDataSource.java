@@ -0,0 +1,57 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts connections obtained from the data source and commits made on them, so that {@link ContainerTest} knows
+ * whether changes of a test can be simply rolled back.
+ */
+public class ConnectionTrackingDataSource extends DelegatingDataSource {
+	private final AtomicLong connectionCount = new AtomicLong();
+	private final AtomicLong commitCount = new AtomicLong();
+
+	public ConnectionTrackingDataSource(DataSource target) {
+		super(target);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return track(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return track(super.getConnection(username, password));
+	}
+
+	public long getConnectionCount() {
+		return connectionCount.get();
+	}
+
+	public long getCommitCount() {
+		return commitCount.get();
+	}
+
+	private Connection track(Connection connection) {
+		connectionCount.incrementAndGet();
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+			// Switching auto-commit on commits current transaction
+			if (method.getName().equals("commit")
+					|| method.getName().equals("setAutoCommit") && Boolean.TRUE.equals(args[0]) && !connection.getAutoCommit()) {
+				commitCount.incrementAndGet();
+			}
+			try {
+				return method.invoke(connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		});
+	}
+}
@@ -2,6 +2,8 @@ package com.github.curiousoddman.curioustestutils.testcontainer.db;
 
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
@@ -11,12 +13,33 @@ import org.springframework.test.context.ActiveProfiles;
 @SpringBootTest(classes = PostgresContainerConfig.class)
 public abstract class ContainerTest {
     @Autowired
-    private TestCleanUpService cleanUpService;
+    private DatabaseCleaner cleanUpService;
+    /**
+     * Available with {@code curious.test.container.rollback-isolation=true}.
+     */
+    @Autowired
+    private ObjectProvider<ConnectionTrackingDataSource> trackingDataSource;
+    private RollbackIsolation rollbackIsolation;
+
+    @BeforeEach
+    public void beginRollbackIsolation() {
+        ConnectionTrackingDataSource dataSource = trackingDataSource.getIfAvailable();
+        if (dataSource != null) {
+            rollbackIsolation = RollbackIsolation.begin(dataSource);
+        }
+    }
 
     @AfterEach
     public void cleanUp() {
         log.info("Performing database cleanup");
-        if (shouldCleanup()) {
+        boolean rolledBack = false;
+        if (rollbackIsolation != null) {
+            rolledBack = rollbackIsolation.rollback();
+            rollbackIsolation = null;
+        }
+        if (rolledBack) {
+            log.info("Changes rolled back, cleanup is not needed");
+        } else if (shouldCleanup()) {
             cleanUpService.cleanUp();
         } else {
             log.info("Cleanup skipped!");
@@ -0,0 +1,8 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+/**
+ * Brings test database back to its initial state after a test, used by {@link ContainerTest}.
+ */
+public interface DatabaseCleaner {
+	void cleanUp();
+}
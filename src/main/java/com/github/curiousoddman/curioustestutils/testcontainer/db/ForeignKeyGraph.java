@@ -0,0 +1,108 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+/**
+ * Foreign keys between tables of the current schema. Tables of other schemas are not part of the graph, only the fact
+ * that they reference a table of the current schema is known.
+ */
+@RequiredArgsConstructor
+class ForeignKeyGraph {
+	private static final String FOREIGN_KEYS_SQL = """
+			SELECT c.relname::text, r.relname::text, r.relnamespace <> c.relnamespace
+			FROM pg_class c
+			         LEFT JOIN pg_constraint fk ON fk.confrelid = c.oid AND fk.contype = 'f'
+			         LEFT JOIN pg_class r ON r.oid = fk.conrelid
+			WHERE c.relnamespace = current_schema()::regnamespace AND c.relkind IN ('r', 'p')
+			""";
+
+	static final long UNKNOWN_VERSION = -1;
+
+	/**
+	 * Schema version the graph was loaded at.
+	 */
+	@Getter
+	private final long version;
+	/**
+	 * Table name to names of tables that reference it.
+	 */
+	private final Map<String, Set<String>> referencingTables;
+	/**
+	 * Tables referenced by tables of other schemas.
+	 */
+	private final Set<String> referencedFromOtherSchemas;
+
+	static ForeignKeyGraph load(JdbcTemplate jdbcTemplate, long version) {
+		Map<String, Set<String>> referencingTables = new HashMap<>();
+		Set<String> referencedFromOtherSchemas = new TreeSet<>();
+		jdbcTemplate.query(FOREIGN_KEYS_SQL, rs -> {
+			String table = rs.getString(1);
+			String referencing = rs.getString(2);
+			Set<String> references = referencingTables.computeIfAbsent(table, t -> new TreeSet<>());
+			if (rs.getBoolean(3)) {
+				referencedFromOtherSchemas.add(table);
+			} else if (referencing != null && !referencing.equals(table)) {
+				// Self references do not affect the order
+				references.add(referencing);
+			}
+		});
+		return new ForeignKeyGraph(version, referencingTables, referencedFromOtherSchemas);
+	}
+
+	/**
+	 * @return true if tables of other schemas reference any of given tables, so they cannot be truncated without CASCADE
+	 */
+	boolean isReferencedFromOtherSchemas(Collection<String> tables) {
+		return tables.stream().anyMatch(referencedFromOtherSchemas::contains);
+	}
+
+	boolean containsAll(Collection<String> tables) {
+		return referencingTables.keySet().containsAll(tables);
+	}
+
+	/**
+	 * Given tables together with all tables referencing them directly or indirectly, i.e. the ones TRUNCATE ... CASCADE
+	 * would clear. Unknown tables (dropped ones) are skipped.
+	 */
+	Set<String> referencingClosure(Collection<String> tables) {
+		Set<String> closure = new TreeSet<>();
+		Deque<String> queue = new ArrayDeque<>(tables);
+		while (!queue.isEmpty()) {
+			String table = queue.poll();
+			Set<String> referencing = referencingTables.get(table);
+			if (referencing != null && closure.add(table)) {
+				queue.addAll(referencing);
+			}
+		}
+		return closure;
+	}
+
+	/**
+	 * Orders given tables so that referencing tables go before the ones they reference. Cycles are broken arbitrarily.
+	 */
+	List<String> deleteOrder(Collection<String> tables) {
+		Set<String> tableSet = new TreeSet<>(tables);
+		Set<String> visited = new HashSet<>();
+		List<String> order = new ArrayList<>();
+		for (String table : tableSet) {
+			visit(table, tableSet, visited, order);
+		}
+		return order;
+	}
+
+	private void visit(String table, Set<String> tableSet, Set<String> visited, List<String> order) {
+		if (!visited.add(table)) {
+			return;
+		}
+		for (String referencing : referencingTables.getOrDefault(table, Set.of())) {
+			if (tableSet.contains(referencing)) {
+				visit(referencing, tableSet, visited, order);
+			}
+		}
+		order.add(table);
+	}
+}
@@ -1,9 +1,13 @@
 package com.github.curiousoddman.curioustestutils.testcontainer.db;
 
+import com.github.curiousoddman.curioustestutils.junit.listener.SuiteProfiler;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -11,7 +15,11 @@ import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.utility.DockerImageName;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 public class PostgresContainerConfig {
@@ -19,8 +27,15 @@ public class PostgresContainerConfig {
     private static final String USERNAME = "user1";
     private static final String PASSWORD = "pass1";
     private static final String DB_NAME = "dbName";
+    private static final String CONTAINER_START_PHASE = "postgres.container.start";
     @Value("${curious.postgres-test-container.image}")
     private String postgresTestContainerImage;
+    @Value("${curious.test.container.pool.size:4}")
+    private int poolSize;
+    @Value("${curious.test.container.pool.prepare-threshold:5}")
+    private int prepareThreshold;
+    @Value("${curious.test.container.pool.prepared-statement-cache-queries:256}")
+    private int preparedStatementCacheQueries;
 
     @Bean
     public PostgreSQLContainer<?> container() {
@@ -29,7 +44,9 @@ public class PostgresContainerConfig {
         container.withPassword(PASSWORD);
         container.withDatabaseName(DB_NAME);
         container.waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 1));
+        Instant start = Instant.now();
         container.start();
+        SuiteProfiler.recordPhase(CONTAINER_START_PHASE, Duration.between(start, Instant.now()));
         log.info("PostgreSQL container started. jdbcUrl:[{}], username:[{}], password:[{}]",
                 container.getJdbcUrl(),
                 container.getUsername(),
@@ -42,15 +59,45 @@ public class PostgresContainerConfig {
         return container;
     }
 
+    /**
+     * Pooled data source, so that tests and cleanup do not open new physical connection for every statement.
+     * Server-side prepared statements are cached per connection by the driver.
+     * With template database cleanup it is switched to a fresh copy of the database after every test.
+     * With rollback isolation connections are tracked, so that changes of a test are rolled back when possible.
+     */
     @Bean
     @ConditionalOnProperty(name = "curious.test.container.current.schema.name")
-    public DataSource dataSource(PostgreSQLContainer<?> postgreSQLContainer, @Value("${curious.test.container.current.schema.name}") String schemaName) {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setUrl(postgreSQLContainer.getJdbcUrl() + "&" + schemaParam(schemaName));
-        dataSource.setUsername(USERNAME);
-        dataSource.setPassword(PASSWORD);
-        dataSource.setSchema(schemaName);
-        log.info("{} dataSource: {}", schemaName, dataSource);
+    public DataSource dataSource(PostgreSQLContainer<?> postgreSQLContainer,
+                                 @Value("${curious.test.container.current.schema.name}") String schemaName,
+                                 @Value("${curious.test.container.cleanup-engine:TABLES}") CleanUpEngine cleanUpEngine,
+                                 @Value("${curious.test.container.rollback-isolation:false}") boolean rollbackIsolation) {
+        DataSource dataSource = createDataSource(postgreSQLContainer.getJdbcUrl(), schemaName, 1);
+        if (cleanUpEngine == CleanUpEngine.TEMPLATE_DATABASE) {
+            dataSource = new SwitchableDataSource(dataSource);
+        }
+        return rollbackIsolation ? new ConnectionTrackingDataSource(dataSource) : dataSource;
+    }
+
+    /**
+     * @param minimumIdle with 0 no connections are opened until the first one is requested
+     */
+    private HikariDataSource createDataSource(String jdbcUrl, String schemaName, int minimumIdle) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(schemaName);
+        config.setJdbcUrl(jdbcUrl + "&" + schemaParam(schemaName));
+        config.setUsername(USERNAME);
+        config.setPassword(PASSWORD);
+        config.setSchema(schemaName);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(minimumIdle);
+        if (minimumIdle == 0) {
+            // Otherwise pool opens and closes a connection to check the database is reachable
+            config.setInitializationFailTimeout(-1);
+        }
+        config.addDataSourceProperty("prepareThreshold", prepareThreshold);
+        config.addDataSourceProperty("preparedStatementCacheQueries", preparedStatementCacheQueries);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        log.info("{} dataSource: {}, pool size {}", schemaName, dataSource, poolSize);
         return dataSource;
     }
 
@@ -62,9 +109,49 @@ public class PostgresContainerConfig {
         return jdbcTemplate;
     }
 
+    /**
+     * Replaces {@link TestCleanUpService} in {@link ContainerTest} with switching to a fresh copy of the database.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "curious.test.container.cleanup-engine", havingValue = "TEMPLATE_DATABASE")
+    public TemplateDatabaseCleaner templateDatabaseCleaner(PostgreSQLContainer<?> postgreSQLContainer,
+                                                           DataSource dataSource,
+                                                           @Value("${curious.test.container.current.schema.name}") String schemaName) throws SQLException {
+        if (!dataSource.isWrapperFor(SwitchableDataSource.class)) {
+            throw new IllegalStateException("Template database cleanup requires " + SwitchableDataSource.class.getSimpleName() + ", got " + dataSource);
+        }
+        SwitchableDataSource switchableDataSource = dataSource.unwrap(SwitchableDataSource.class);
+        String jdbcUrl = postgreSQLContainer.getJdbcUrl();
+        DataSource adminDataSource = new DriverManagerDataSource(withDatabase(jdbcUrl, "postgres"), USERNAME, PASSWORD);
+        return new TemplateDatabaseCleaner(
+                switchableDataSource,
+                DB_NAME,
+                // New pool is created for every copy, it connects only when test uses the database
+                databaseName -> createDataSource(withDatabase(jdbcUrl, databaseName), schemaName, 0),
+                new JdbcTemplate(adminDataSource)
+        );
+    }
+
     @Bean
-    public TestCleanUpService testCleanUpService(List<JdbcTemplate> jdbcTemplates) {
-        return new TestCleanUpService(jdbcTemplates);
+    public TestCleanUpService testCleanUpService(List<JdbcTemplate> jdbcTemplates,
+                                                 @Value("${curious.test.container.baseline.tables:}") Set<String> baselineTables,
+                                                 @Value("${curious.test.container.change-detection:TRIGGERS}") ChangeDetection changeDetection,
+                                                 @Value("${curious.test.container.cleanup-strategy:TRUNCATE}") CleanUpStrategy cleanUpStrategy,
+                                                 @Value("${curious.test.container.delete-threshold-rows:1000}") long deleteThresholdRows,
+                                                 @Value("${curious.test.container.cleanup-threads:8}") int cleanUpThreads) {
+        CleanUpOptions options = CleanUpOptions.builder()
+                .baselineTables(baselineTables)
+                .changeDetection(changeDetection)
+                .cleanUpStrategy(cleanUpStrategy)
+                .deleteThresholdRows(deleteThresholdRows)
+                .cleanUpThreads(cleanUpThreads)
+                .build();
+        return new TestCleanUpService(jdbcTemplates, options);
+    }
+
+    private String withDatabase(String jdbcUrl, String databaseName) {
+        return jdbcUrl.replace("/" + DB_NAME + "?", "/" + databaseName + "?");
     }
 
     private String schemaParam(String schemaName) {
@@ -0,0 +1,40 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Transaction bound to test thread (or savepoint, when test already runs in transaction), that is rolled back after
+ * the test.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class RollbackIsolation {
+	private final ConnectionTrackingDataSource dataSource;
+	private final DataSourceTransactionManager transactionManager;
+	private final TransactionStatus transaction;
+	private final long connectionCount;
+	private final long commitCount;
+
+	static RollbackIsolation begin(ConnectionTrackingDataSource dataSource) {
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		TransactionStatus transaction = transactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NESTED));
+		return new RollbackIsolation(dataSource, transactionManager, transaction, dataSource.getConnectionCount(), dataSource.getCommitCount());
+	}
+
+	/**
+	 * @return true when all changes of the test were rolled back, false when the test committed or used other
+	 * connections, i.e. database still has to be cleaned up
+	 */
+	boolean rollback() {
+		boolean isolated = dataSource.getConnectionCount() == connectionCount && dataSource.getCommitCount() == commitCount;
+		if (transaction.isCompleted()) {
+			return false;
+		}
+		transactionManager.rollback(transaction);
+		return isolated;
+	}
+}
@@ -0,0 +1,27 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Data source, that can be pointed to another database between tests. Connections obtained before the switch keep
+ * working with the previous database.
+ */
+public class SwitchableDataSource extends DelegatingDataSource {
+	private volatile DataSource target;
+
+	public SwitchableDataSource(DataSource target) {
+		this.target = target;
+	}
+
+	@Override
+	public DataSource getTargetDataSource() {
+		return target;
+	}
+
+	@Override
+	public void setTargetDataSource(DataSource target) {
+		this.target = target;
+	}
+}
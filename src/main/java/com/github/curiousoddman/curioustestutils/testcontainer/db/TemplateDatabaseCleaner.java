@@ -0,0 +1,110 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import com.github.curiousoddman.curioustestutils.junit.listener.SuiteProfiler;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Once all beans are created (i.e. schema is migrated and seed data is loaded), database becomes a template and tests
+ * are switched to its copy made by {@code CREATE DATABASE ... TEMPLATE}. Cleanup switches data source to the next copy,
+ * that is created in background in advance, previous copy is dropped in background too.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TemplateDatabaseCleaner implements DatabaseCleaner, SmartInitializingSingleton, DisposableBean {
+	private static final String CLEANUP_PHASE = "database.cleanup";
+
+	private final SwitchableDataSource dataSource;
+	private final String templateDatabase;
+	/**
+	 * Creates data source connected to database with given name.
+	 */
+	private final Function<String, DataSource> dataSourceFactory;
+	/**
+	 * Connected to maintenance database, as databases can not be created or dropped while connected to them.
+	 */
+	private final JdbcTemplate adminJdbcTemplate;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "template-database-cleaner");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final AtomicInteger copyCounter = new AtomicInteger();
+	private String currentDatabase;
+	private Future<String> nextDatabase;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		// Template can not be copied while anyone is connected to it
+		close(dataSource.getTargetDataSource());
+		adminJdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE datname = ? AND pid <> pg_backend_pid()",
+				templateDatabase);
+		currentDatabase = createCopy();
+		dataSource.setTargetDataSource(dataSourceFactory.apply(currentDatabase));
+		nextDatabase = executor.submit(this::createCopy);
+		log.info("Database {} is used as template, tests are switched to {}", templateDatabase, currentDatabase);
+	}
+
+	@Override
+	@SneakyThrows
+	public void cleanUp() {
+		Instant start = Instant.now();
+		try {
+			String previousDatabase = currentDatabase;
+			DataSource previousDataSource = dataSource.getTargetDataSource();
+			currentDatabase = nextDatabase.get();
+			dataSource.setTargetDataSource(dataSourceFactory.apply(currentDatabase));
+			executor.execute(() -> {
+				close(previousDataSource);
+				dropDatabase(previousDatabase);
+			});
+			nextDatabase = executor.submit(this::createCopy);
+		} finally {
+			Duration duration = Duration.between(start, Instant.now());
+			SuiteProfiler.recordPhase(CLEANUP_PHASE, duration);
+			log.info("Switched to database {} in {}", currentDatabase, duration);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+		close(dataSource.getTargetDataSource());
+	}
+
+	private String createCopy() {
+		String database = templateDatabase + "_copy_" + copyCounter.incrementAndGet();
+		Instant start = Instant.now();
+		adminJdbcTemplate.execute(format("CREATE DATABASE \"%s\" TEMPLATE \"%s\"", database, templateDatabase));
+		log.info("Created database {} in {}", database, Duration.between(start, Instant.now()));
+		return database;
+	}
+
+	private void dropDatabase(String database) {
+		adminJdbcTemplate.execute(format("DROP DATABASE IF EXISTS \"%s\" WITH (FORCE)", database));
+	}
+
+	@SneakyThrows
+	private static void close(DataSource dataSource) {
+		if (dataSource instanceof Closeable closeable) {
+			closeable.close();
+		}
+	}
+}
@@ -1,63 +1,447 @@
 package com.github.curiousoddman.curioustestutils.testcontainer.db;
 
-import lombok.RequiredArgsConstructor;
+import com.github.curiousoddman.curioustestutils.junit.listener.SuiteProfiler;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import javax.sql.DataSource;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.sql.*;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
 @Slf4j
-@RequiredArgsConstructor
-public class TestCleanUpService {
+public class TestCleanUpService implements DatabaseCleaner, SmartInitializingSingleton, DisposableBean {
 	private final List<JdbcTemplate> jdbcTemplateList;
+	private final Set<String> baselineTables;
+	private final ChangeDetection changeDetection;
+	private final CleanUpStrategy cleanUpStrategy;
+	private final long deleteThresholdRows;
+	/**
+	 * Cleans up schemas concurrently, absent when there is only one.
+	 */
+	private final ExecutorService cleanUpExecutor;
+	/**
+	 * Event trigger is created for the whole database, so schemas are initialized one at a time.
+	 */
+	private final Object initializationLock = new Object();
 
 	private static final String CHANGES_TABLE_NAME = "t_tests_changes_tracking";
-	public final Set<JdbcTemplate> initializedTemplates = new HashSet<>();
+	private static final String CLEANUP_PHASE = "database.cleanup";
+	/**
+	 * Increased by DDL event trigger whenever tables of any schema are created, altered or dropped. Selected with modified
+	 * tables, so that checking whether foreign key graph is stale does not need another round trip.
+	 */
+	private static final String SCHEMA_VERSION_SQL = "(SELECT last_value + is_called::int FROM t_tests_schema_version)";
+	/**
+	 * Committed changes of every table, as reported by statistics. Live tuples are included to notice TRUNCATE.
+	 */
+	private static final String CHANGE_COUNTERS_SQL = """
+			SELECT relname::text, concat_ws('/', n_tup_ins, n_tup_upd, n_tup_del, n_live_tup)
+			FROM pg_stat_user_tables WHERE schemaname = current_schema()
+			""";
+	/**
+	 * Estimated number of rows, that table has now, based on row density of the last vacuum or analyze.
+	 */
+	private static final String ESTIMATED_ROWS_SQL = """
+			SELECT c.relname::text,
+				   CASE WHEN c.relpages > 0 AND c.reltuples >= 0 THEN c.reltuples / c.relpages ELSE ?::float8 END
+					   * (pg_relation_size(c.oid) / current_setting('block_size')::int)
+			FROM pg_class c
+			WHERE c.oid IN (SELECT to_regclass(quote_ident(t)) FROM unnest(string_to_array(?, ',')) t)
+			""";
+	/**
+	 * {@code pg_stat_force_next_flush()} is available since PostgreSQL 15.
+	 */
+	private static final int FORCE_FLUSH_SERVER_VERSION = 150000;
+	/**
+	 * Row density assumed for tables that were never vacuumed or analyzed.
+	 */
+	private static final double UNKNOWN_ROWS_PER_PAGE = 100;
+	public final Set<JdbcTemplate> initializedTemplates = ConcurrentHashMap.newKeySet();
+	private final Map<JdbcTemplate, String> templateSchemas = new ConcurrentHashMap<>();
+	private final Map<JdbcTemplate, Map<String, byte[]>> baselineSnapshots = new ConcurrentHashMap<>();
+	private final Map<JdbcTemplate, Map<String, String>> changeCounters = new ConcurrentHashMap<>();
+	private final Map<JdbcTemplate, ForeignKeyGraph> foreignKeyGraphs = new ConcurrentHashMap<>();
 
-	public void cleanUp() {
+	public TestCleanUpService(List<JdbcTemplate> jdbcTemplateList) {
+		this(jdbcTemplateList, CleanUpOptions.builder().build());
+	}
+
+	public TestCleanUpService(List<JdbcTemplate> jdbcTemplateList, CleanUpOptions options) {
+		this.jdbcTemplateList = jdbcTemplateList;
+		this.baselineTables = new TreeSet<>(options.getBaselineTables());
+		this.changeDetection = options.getChangeDetection();
+		this.cleanUpStrategy = options.getCleanUpStrategy();
+		this.deleteThresholdRows = options.getDeleteThresholdRows();
+		this.cleanUpExecutor = jdbcTemplateList.size() > 1
+				? Executors.newFixedThreadPool(Math.min(jdbcTemplateList.size(), options.getCleanUpThreads()), new CleanUpThreadFactory())
+				: null;
+	}
+
+	/**
+	 * Baseline is captured before any test runs, after all beans (i.e. database migrations) are initialized.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		snapshotBaseline();
+	}
+
+	/**
+	 * Captures current contents of baseline tables in every schema, they are restored after each test.
+	 * Has to be called again when baseline tables are seeded after application context is started.
+	 */
+	@SneakyThrows
+	public void snapshotBaseline() {
+		if (baselineTables.isEmpty()) {
+			return;
+		}
 		for (JdbcTemplate jdbcTemplate : jdbcTemplateList) {
-			Instant start = Instant.now();
 			try (Connection conn = getConnection(jdbcTemplate)) {
-				String schema = conn.getSchema();
-				MDC.put("context", schema);
-				log.info("Initialize...");
-				Set<String> tables = new HashSet<>();
+				snapshotBaseline(conn, jdbcTemplate);
+			}
+		}
+	}
 
-				if (shouldInitialize(jdbcTemplate)) {
-					initialize(schema, jdbcTemplate);
+	@Override
+	public void cleanUp() {
+		Instant start = Instant.now();
+		try {
+			if (cleanUpExecutor == null) {
+				jdbcTemplateList.forEach(this::cleanUp);
+			} else {
+				cleanUpConcurrently();
+			}
+		} finally {
+			// Recorded on test thread, so that phase is attributed to the test
+			SuiteProfiler.recordPhase(CLEANUP_PHASE, Duration.between(start, Instant.now()));
+		}
+	}
+
+	/**
+	 * Stops cleanup threads, cleanup of several schemas is not possible afterwards.
+	 */
+	@Override
+	public void destroy() {
+		if (cleanUpExecutor != null) {
+			cleanUpExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Cleans up every schema in its own task, failures of all schemas are reported together.
+	 */
+	@SneakyThrows
+	private void cleanUpConcurrently() {
+		Map<String, String> callerContext = MDC.getCopyOfContextMap();
+		List<Future<?>> futures = new ArrayList<>();
+		for (JdbcTemplate jdbcTemplate : jdbcTemplateList) {
+			futures.add(cleanUpExecutor.submit(() -> {
+				if (callerContext != null) {
+					MDC.setContextMap(callerContext);
+				}
+				cleanUp(jdbcTemplate);
+			}));
+		}
+		List<Throwable> failures = new ArrayList<>();
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				failures.add(e.getCause());
+			}
+		}
+		if (!failures.isEmpty()) {
+			IllegalStateException exception = new IllegalStateException(format("Cleanup failed for %d of %d schemas", failures.size(), futures.size()));
+			failures.forEach(exception::addSuppressed);
+			throw exception;
+		}
+	}
 
-					log.info("Cleaning up all existing tables in schema '{}'", schema);
-					requireNonNull(schema, "When schema is null tables from all schemas will be cleared. Please set schema using DataSource::setSchema()");
-					tables.addAll(getAllTablesInSchema(conn, schema));
+	private void cleanUp(JdbcTemplate jdbcTemplate) {
+		Instant start = Instant.now();
+		try {
+			String schema = templateSchemas.get(jdbcTemplate);
+			if (schema != null && initializedTemplates.contains(jdbcTemplate)) {
+				MDC.put("context", schema);
+				List<String> tables;
+				if (changeDetection == ChangeDetection.STATISTICS) {
+					tables = cleanUpChangedTables(schema, jdbcTemplate);
+				} else if (cleanUpStrategy == CleanUpStrategy.ADAPTIVE) {
+					ModifiedTables modifiedTables = getAndClearModifiedTablesWithVersion(jdbcTemplate);
+					tables = modifiedTables.tables();
+					clearTables(schema, jdbcTemplate, tables, modifiedTables.schemaVersion());
 				} else {
-					tables.addAll(getAndClearModifiedTables(jdbcTemplate));
-					log.info("Cleaning tables incrementally in schema {} (only the ones that were changed during test).", schema);
+					tables = cleanUpModifiedTables(jdbcTemplate);
 				}
+				log.info("Cleaned tables incrementally in schema {} (only the ones that were changed during test): {}", schema, tables);
+			} else {
+				synchronized (initializationLock) {
+					initializeAndCleanUp(jdbcTemplate);
+				}
+			}
+		} catch (SQLException e) {
+			log.error("Error fetching table metadata in postgres tests. Make sure test isolation is still fine.", e);
+			throw new IllegalStateException(e);
+		} finally {
+			log.info("Cleanup completed in {}", Duration.between(start, Instant.now()));
+			MDC.clear();
+		}
+	}
+
+	private void initializeAndCleanUp(JdbcTemplate jdbcTemplate) throws SQLException {
+		String schema;
+		try (Connection conn = getConnection(jdbcTemplate)) {
+			schema = conn.getSchema();
+			MDC.put("context", schema);
+			log.info("Initialize...");
+			Set<String> notCaptured = new TreeSet<>(baselineTables);
+			notCaptured.removeAll(baselineSnapshots.getOrDefault(jdbcTemplate, Map.of()).keySet());
+			if (!notCaptured.isEmpty()) {
+				throw new IllegalStateException(format("Baseline tables %s of schema %s are not captured. Call snapshotBaseline() after they are seeded", notCaptured, schema));
+			}
+			Set<String> tables = new HashSet<>();
+			long schemaVersion;
+
+			if (changeDetection == ChangeDetection.STATISTICS) {
+				// Nothing to install, changes are detected by comparing table statistics
+				int serverVersion = requireNonNull(jdbcTemplate.queryForObject("SELECT current_setting('server_version_num')::int", Integer.class));
+				if (serverVersion < FORCE_FLUSH_SERVER_VERSION) {
+					throw new IllegalStateException("Change detection by statistics requires PostgreSQL 15 or newer, server version is " + serverVersion);
+				}
+				log.info("Cleaning up all existing tables in schema '{}'", schema);
+				requireNonNull(schema, "When schema is null tables from all schemas will be cleared. Please set schema using DataSource::setSchema()");
+				tables.addAll(getAllTablesInSchema(conn, schema));
+				initializedTemplates.add(jdbcTemplate);
+				schemaVersion = ForeignKeyGraph.UNKNOWN_VERSION;
+			} else if (shouldInitialize(jdbcTemplate)) {
+				initialize(schema, jdbcTemplate);
+				trackBaselineChanges(jdbcTemplate);
+
+				log.info("Cleaning up all existing tables in schema '{}'", schema);
+				requireNonNull(schema, "When schema is null tables from all schemas will be cleared. Please set schema using DataSource::setSchema()");
+				tables.addAll(getAllTablesInSchema(conn, schema));
+				schemaVersion = requireNonNull(jdbcTemplate.queryForObject("SELECT " + SCHEMA_VERSION_SQL, Long.class));
+			} else {
+				ModifiedTables modifiedTables = getAndClearModifiedTablesWithVersion(jdbcTemplate);
+				tables.addAll(modifiedTables.tables());
+				schemaVersion = modifiedTables.schemaVersion();
+				log.info("Cleaning tables incrementally in schema {} (only the ones that were changed during test).", schema);
+				// Tracking was initialized earlier, i.e. by another service instance
+				executeFile("cleanup_modified_tables_function.sql", jdbcTemplate);
+				initializedTemplates.add(jdbcTemplate);
+				trackBaselineChanges(jdbcTemplate);
+				// Changes of the first test were not tracked yet
+				tables.addAll(baselineSnapshots.getOrDefault(jdbcTemplate, Map.of()).keySet());
+			}
+
+			clearTables(conn, jdbcTemplate, schema, tables, schemaVersion);
+		}
+		if (changeDetection == ChangeDetection.STATISTICS) {
+			changeCounters.put(jdbcTemplate, readFlushedChangeCounters(jdbcTemplate));
+		}
+		if (schema != null) {
+			templateSchemas.put(jdbcTemplate, schema);
+		}
+	}
+
+	/**
+	 * Reads, truncates and clears modified tables in a single call of server side function.
+	 */
+	private List<String> cleanUpModifiedTables(JdbcTemplate jdbcTemplate) {
+		ModifiedTables modifiedTables = queryModifiedTables(jdbcTemplate, "SELECT t, " + SCHEMA_VERSION_SQL + " FROM test_cleanup_modified_tables() t");
+		restoreBaseline(jdbcTemplate, modifiedTables.tables(), modifiedTables.schemaVersion());
+		return modifiedTables.tables();
+	}
+
+	/**
+	 * Truncates tables which statistics changed since the previous cleanup. Counters are read again after cleanup, so
+	 * that changes made by the cleanup itself (i.e. truncation and baseline restore) are not noticed next time.
+	 */
+	@SneakyThrows
+	private List<String> cleanUpChangedTables(String schema, JdbcTemplate jdbcTemplate) {
+		Map<String, String> previous = changeCounters.getOrDefault(jdbcTemplate, Map.of());
+		Map<String, String> current = readFlushedChangeCounters(jdbcTemplate);
+		Set<String> tables = current.entrySet().stream()
+				.filter(entry -> !entry.getValue().equals(previous.get(entry.getKey())))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toCollection(TreeSet::new));
+		if (!tables.isEmpty()) {
+			clearTables(schema, jdbcTemplate, tables, ForeignKeyGraph.UNKNOWN_VERSION);
+			current = readFlushedChangeCounters(jdbcTemplate);
+		}
+		changeCounters.put(jdbcTemplate, current);
+		return new ArrayList<>(tables);
+	}
+
+	@SneakyThrows
+	private void clearTables(String schema, JdbcTemplate jdbcTemplate, Collection<String> tables, long schemaVersion) {
+		if (tables.isEmpty()) {
+			return;
+		}
+		try (Connection conn = getConnection(jdbcTemplate)) {
+			clearTables(conn, jdbcTemplate, schema, tables, schemaVersion);
+		}
+	}
+
+	private void clearTables(Connection conn, JdbcTemplate jdbcTemplate, String schema, Collection<String> tables, long schemaVersion) {
+		Collection<String> truncatedTables = cleanUpStrategy == CleanUpStrategy.ADAPTIVE
+				? deleteOrTruncateTables(conn, jdbcTemplate, tables, schemaVersion)
+				: truncateTables(conn, jdbcTemplate, schema, tables, schemaVersion);
+		restoreBaseline(jdbcTemplate, truncatedTables, schemaVersion);
+	}
 
-				truncateTables(conn, schema, tables);
-			} catch (SQLException e) {
-				log.error("Error fetching table metadata in postgres tests. Make sure test isolation is still fine.", e);
-				throw new IllegalStateException(e);
+	/**
+	 * Deletes rows of tables with few estimated rows and truncates the rest. Foreign keys are not checked while rows are
+	 * deleted, so tables referencing cleared ones are cleared too, the same way as with truncation.
+	 *
+	 * @return truncated tables
+	 */
+	@SneakyThrows
+	private List<String> deleteOrTruncateTables(Connection connection, JdbcTemplate jdbcTemplate, Collection<String> tables, long schemaVersion) {
+		Map<String, Double> estimatedRows = new HashMap<>();
+		jdbcTemplate.query(ESTIMATED_ROWS_SQL, rs -> {
+			estimatedRows.put(rs.getString(1), rs.getDouble(2));
+		}, UNKNOWN_ROWS_PER_PAGE, String.join(",", tables));
+		if (estimatedRows.isEmpty()) {
+			log.warn("No existing tables in {}. Skipping cleanup", tables);
+			return List.of();
+		}
+		ForeignKeyGraph foreignKeyGraph = foreignKeyGraph(jdbcTemplate, schemaVersion, estimatedRows.keySet());
+		Set<String> tablesToClear = foreignKeyGraph.referencingClosure(estimatedRows.keySet());
+		// Baseline tables are restored by COPY into empty table, so they are always truncated. Referencing tables
+		// of other schemas are cleared only by TRUNCATE ... CASCADE. Tables without estimate were not modified.
+		Set<String> largeTables = tablesToClear.stream()
+				.filter(table -> estimatedRows.getOrDefault(table, 0.0) > deleteThresholdRows
+						|| baselineTables.contains(table)
+						|| foreignKeyGraph.isReferencedFromOtherSchemas(List.of(table)))
+				.collect(Collectors.toSet());
+		List<String> tablesToTruncate = foreignKeyGraph.deleteOrder(foreignKeyGraph.referencingClosure(largeTables));
+		Set<String> tablesToDelete = new HashSet<>(tablesToClear);
+		tablesToDelete.removeAll(tablesToTruncate);
+		// Order does not matter for integrity, as foreign keys are not checked, it only makes the log readable
+		List<String> deleteOrder = foreignKeyGraph.deleteOrder(tablesToDelete);
+		log.info("Deleting from tables with up to {} estimated rows: {}, truncating tables: {}", deleteThresholdRows, deleteOrder, tablesToTruncate);
+		try (Statement statement = connection.createStatement()) {
+			// Disable all triggers and constraints
+			statement.execute("set session_replication_role to replica");
+			try {
+				for (String tableName : deleteOrder) {
+					statement.addBatch("DELETE FROM " + quoteIdentifier(tableName));
+				}
+				if (!tablesToTruncate.isEmpty()) {
+					statement.addBatch(truncateStatement(foreignKeyGraph, tablesToTruncate));
+				}
+				statement.executeBatch();
 			} finally {
-				log.info("Cleanup completed in {}", Duration.between(start, Instant.now()));
-				MDC.clear();
+				// Re-enable all triggers and constraints, connection is returned to the pool
+				statement.execute("set session_replication_role to default");
+			}
+		}
+		return tablesToTruncate;
+	}
+
+	/**
+	 * Referencing tables of the current schema are truncated together, so CASCADE is needed only when tables of other
+	 * schemas reference truncated ones. Those are emptied too, the same way as by server side cleanup function.
+	 */
+	private String truncateStatement(ForeignKeyGraph foreignKeyGraph, List<String> tablesToTruncate) {
+		if (foreignKeyGraph.isReferencedFromOtherSchemas(tablesToTruncate)) {
+			log.warn("Tables of other schemas reference some of {}, they are truncated with CASCADE", tablesToTruncate);
+			return format("truncate %s cascade", quoteIdentifiers(tablesToTruncate));
+		}
+		return format("truncate %s", quoteIdentifiers(tablesToTruncate));
+	}
+
+	/**
+	 * Foreign key graph is loaded once and reloaded only when schema version changes. Without DDL event trigger
+	 * (statistics change detection) it is reloaded when tables created after loading are cleaned up.
+	 */
+	private ForeignKeyGraph foreignKeyGraph(JdbcTemplate jdbcTemplate, long version, Collection<String> tables) {
+		ForeignKeyGraph foreignKeyGraph = foreignKeyGraphs.get(jdbcTemplate);
+		boolean stale = version == ForeignKeyGraph.UNKNOWN_VERSION
+				? foreignKeyGraph == null || !foreignKeyGraph.containsAll(tables)
+				: foreignKeyGraph == null || foreignKeyGraph.getVersion() != version;
+		if (stale) {
+			foreignKeyGraph = ForeignKeyGraph.load(jdbcTemplate, version);
+			foreignKeyGraphs.put(jdbcTemplate, foreignKeyGraph);
+			log.info("Loaded foreign key graph, schema version {}", version);
+		}
+		return foreignKeyGraph;
+	}
+
+	/**
+	 * Backends flush statistics when they become idle, but not more often than once a second, otherwise only after
+	 * about 10 seconds. Statistics of each idle pooled connection are flushed before it returns the result of
+	 * {@code pg_stat_force_next_flush()}. Unpooled connections flush their statistics when they are closed.
+	 */
+	@SneakyThrows
+	private void flushPendingStatistics(JdbcTemplate jdbcTemplate) {
+		DataSource dataSource = requireNonNull(jdbcTemplate.getDataSource(), "DataSource is null");
+		if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+			return;
+		}
+		HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+		HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+		if (poolMXBean == null) {
+			return;
+		}
+		if (poolMXBean.getActiveConnections() > 0) {
+			log.warn("{} connections are still in use, their changes may be noticed only by the next cleanup", poolMXBean.getActiveConnections());
+		}
+		// Connections are borrowed all at once, so that every idle connection is visited
+		List<Connection> connections = new ArrayList<>();
+		try {
+			for (int i = poolMXBean.getIdleConnections(); i > 0; i--) {
+				Connection connection = pool.getConnection();
+				connections.add(connection);
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("SELECT pg_stat_force_next_flush()");
+				}
+			}
+		} finally {
+			for (Connection connection : connections) {
+				connection.close();
 			}
 		}
 	}
 
+	/**
+	 * Connections have to be returned to the pool before, so that their statistics are flushed.
+	 */
+	private Map<String, String> readFlushedChangeCounters(JdbcTemplate jdbcTemplate) {
+		flushPendingStatistics(jdbcTemplate);
+		return readChangeCounters(jdbcTemplate);
+	}
+
+	private Map<String, String> readChangeCounters(JdbcTemplate jdbcTemplate) {
+		Map<String, String> counters = new HashMap<>();
+		jdbcTemplate.query(CHANGE_COUNTERS_SQL, rs -> {
+			counters.put(rs.getString(1), rs.getString(2));
+		});
+		return counters;
+	}
+
 	private Set<String> getAllTablesInSchema(Connection conn, String schema) throws SQLException {
 		Set<String> tables = new HashSet<>();
 		ResultSet rs = conn.getMetaData().getTables(null, schema, null, new String[]{"TABLE"});
@@ -67,6 +451,81 @@ public class TestCleanUpService {
 		return tables;
 	}
 
+	/**
+	 * Captures contents of existing baseline tables in postgres binary format.
+	 */
+	@SneakyThrows
+	private void snapshotBaseline(Connection conn, JdbcTemplate jdbcTemplate) {
+		CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+		Map<String, byte[]> snapshots = new HashMap<>();
+		long totalBytes = 0;
+		for (String tableName : baselineTables) {
+			if (jdbcTemplate.queryForObject("SELECT to_regclass(?)", String.class, quoteIdentifier(tableName)) == null) {
+				log.warn("Baseline table {} does not exist in schema {} yet", tableName, conn.getSchema());
+				continue;
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			copyManager.copyOut(format("COPY %s TO STDOUT (FORMAT binary)", quoteIdentifier(tableName)), out);
+			snapshots.put(tableName, out.toByteArray());
+			totalBytes += out.size();
+		}
+		baselineSnapshots.put(jdbcTemplate, snapshots);
+		log.info("Captured baseline of tables {} ({} bytes)", snapshots.keySet(), totalBytes);
+	}
+
+	/**
+	 * Updates, deletes and truncates of baseline tables are tracked too, so that they are restored from snapshot.
+	 */
+	private void trackBaselineChanges(JdbcTemplate jdbcTemplate) {
+		if (baselineTables.isEmpty()) {
+			return;
+		}
+		executeFile("track_changes_function.sql", jdbcTemplate);
+		for (String tableName : baselineTables) {
+			jdbcTemplate.execute("SELECT test_track_changes('" + quoteIdentifier(tableName) + "'::regclass)");        // NOSONAR
+		}
+	}
+
+	/**
+	 * Loads baseline snapshot back into baseline tables that were emptied by truncation of given tables.
+	 */
+	@SneakyThrows
+	private void restoreBaseline(JdbcTemplate jdbcTemplate, Collection<String> truncatedTables, long schemaVersion) {
+		Map<String, byte[]> snapshots = baselineSnapshots.getOrDefault(jdbcTemplate, Map.of());
+		if (snapshots.isEmpty() || truncatedTables.isEmpty()) {
+			return;
+		}
+		// Tables truncated by server side function with CASCADE include referencing ones
+		Set<String> truncatedWithCascade = foreignKeyGraph(jdbcTemplate, schemaVersion, truncatedTables).referencingClosure(truncatedTables);
+		List<String> tablesToRestore = snapshots.keySet().stream().filter(truncatedWithCascade::contains).sorted().toList();
+		if (tablesToRestore.isEmpty()) {
+			return;
+		}
+		try (Connection connection = getConnection(jdbcTemplate);
+			 Statement statement = connection.createStatement()) {
+			CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+			// Disable all triggers and constraints, so that tables can be loaded in any order and are not tracked as modified
+			statement.execute("set session_replication_role to replica");
+			try {
+				for (String tableName : tablesToRestore) {
+					copyManager.copyIn(format("COPY %s FROM STDIN (FORMAT binary)", quoteIdentifier(tableName)), new ByteArrayInputStream(snapshots.get(tableName)));
+				}
+			} finally {
+				// Re-enable all triggers and constraints, connection is returned to the pool
+				statement.execute("set session_replication_role to default");
+			}
+		}
+		log.info("Restored baseline tables {}", tablesToRestore);
+	}
+
+	private static String quoteIdentifier(String identifier) {
+		return '"' + identifier.replace("\"", "\"\"") + '"';
+	}
+
+	private static String quoteIdentifiers(Collection<String> identifiers) {
+		return identifiers.stream().map(TestCleanUpService::quoteIdentifier).collect(Collectors.joining(","));
+	}
+
 	private boolean shouldInitialize(JdbcTemplate jdbcTemplate) {
 		if (initializedTemplates.contains(jdbcTemplate)) {
 			return false;
@@ -83,6 +542,7 @@ public class TestCleanUpService {
 		executeFile("track_inserts_function.sql", jdbcTemplate);
 		executeFile("create_table_event_trigger_if_not_exists.sql", jdbcTemplate);
 		executeFile("create_table.sql", jdbcTemplate);
+		executeFile("cleanup_modified_tables_function.sql", jdbcTemplate);
 		try (Connection connection = getConnection(jdbcTemplate)) {
 			Set<String> allTablesInSchema = getAllTablesInSchema(connection, schema);
 			for (String tableName : allTablesInSchema) {
@@ -110,25 +570,73 @@ public class TestCleanUpService {
 		return tableNames;
 	}
 
+	private ModifiedTables getAndClearModifiedTablesWithVersion(JdbcTemplate jdbcTemplate) {
+		ModifiedTables modifiedTables = queryModifiedTables(jdbcTemplate, "SELECT DISTINCT table_name, " + SCHEMA_VERSION_SQL + " FROM " + CHANGES_TABLE_NAME);
+		jdbcTemplate.update("TRUNCATE TABLE " + CHANGES_TABLE_NAME);
+		return modifiedTables;
+	}
+
+	/**
+	 * @param sql selects table names and schema version
+	 */
+	private ModifiedTables queryModifiedTables(JdbcTemplate jdbcTemplate, String sql) {
+		List<String> tables = new ArrayList<>();
+		long[] schemaVersion = {ForeignKeyGraph.UNKNOWN_VERSION};
+		jdbcTemplate.query(sql, rs -> {
+			tables.add(rs.getString(1));
+			schemaVersion[0] = rs.getLong(2);
+		});
+		return new ModifiedTables(tables, schemaVersion[0]);
+	}
+
+	/**
+	 * Truncates given tables together with all tables referencing them, in foreign key order.
+	 *
+	 * @return truncated tables
+	 */
 	@SneakyThrows
-	private void truncateTables(Connection connection, String schema, Set<String> tables) {
+	private List<String> truncateTables(Connection connection, JdbcTemplate jdbcTemplate, String schema, Collection<String> tables, long schemaVersion) {
 		if (tables.isEmpty()) {
 			log.warn("Empty list of tables. Skipping cleanup for schema {} ", schema);
-			return;
+			return List.of();
+		}
+		ForeignKeyGraph foreignKeyGraph = foreignKeyGraph(jdbcTemplate, schemaVersion, tables);
+		List<String> tablesToTruncate = foreignKeyGraph.deleteOrder(foreignKeyGraph.referencingClosure(tables));
+		if (tablesToTruncate.isEmpty()) {
+			log.warn("Tables {} do not exist. Skipping cleanup for schema {} ", tables, schema);
+			return tablesToTruncate;
 		}
-		String formattedTableNames = String.join(",", tables);
+		String formattedTableNames = quoteIdentifiers(tablesToTruncate);
 		log.info("Truncating tables:[{}]", formattedTableNames);
 		try (Statement statement = connection.createStatement()) {
 			// Disable all triggers and constraints
 			statement.execute("set session_replication_role to replica");
-			final String truncateStmt = format("truncate %s CASCADE", formattedTableNames);
+			final String truncateStmt = truncateStatement(foreignKeyGraph, tablesToTruncate);
 
 			try (PreparedStatement stmt = connection.prepareStatement(truncateStmt)) {
 				stmt.execute();
+			} finally {
+				// Re-enable all triggers and constraints, connection is returned to the pool
+				statement.execute("set session_replication_role to default");
 			}
+		}
+		return tablesToTruncate;
+	}
+
+	/**
+	 * Tables changed during test, selected together with schema version.
+	 */
+	private record ModifiedTables(List<String> tables, long schemaVersion) {
+	}
+
+	private static class CleanUpThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger();
 
-			// Re-enable all triggers and constraints
-			statement.execute("set session_replication_role to default");
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "test-cleanup-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
 		}
 	}
 
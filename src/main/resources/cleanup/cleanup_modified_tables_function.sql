@@ -0,0 +1,26 @@
+-- Truncates all tables that were changed since the previous call and clears changes tracking table.
+-- Does the whole cleanup in a single call, returns names of truncated tables.
+CREATE OR REPLACE FUNCTION test_cleanup_modified_tables() RETURNS SETOF text AS
+$body$
+DECLARE
+    _tables text[];
+BEGIN
+    SELECT array_agg(DISTINCT table_name::text)
+    INTO _tables
+    FROM t_tests_changes_tracking
+    WHERE to_regclass(format('%I', table_name)) IS NOT NULL;
+
+    TRUNCATE TABLE t_tests_changes_tracking;
+    IF _tables IS NULL THEN
+        RETURN;
+    END IF;
+
+    -- Disable all triggers and constraints until the end of transaction
+    PERFORM set_config('session_replication_role', 'replica', true);
+    EXECUTE (SELECT 'TRUNCATE TABLE ' || string_agg(format('%I', t), ', ') || ' CASCADE' FROM unnest(_tables) t);
+    PERFORM set_config('session_replication_role', 'origin', true);
+
+    RETURN QUERY SELECT unnest(_tables);
+END
+$body$
+    language 'plpgsql';
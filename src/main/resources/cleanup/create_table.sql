@@ -1,4 +1,8 @@
-CREATE TABLE IF NOT EXISTS t_tests_changes_tracking
+-- Unlogged: tracking data is useless after crash and does not need to be written to WAL
+CREATE UNLOGGED TABLE IF NOT EXISTS t_tests_changes_tracking
 (
-    table_name VARCHAR(100)
+    table_name VARCHAR(100) PRIMARY KEY
 );
+
+-- Increased by create_table_trigger on every DDL change of tables in any schema, invalidates cached foreign key graph
+CREATE SEQUENCE IF NOT EXISTS t_tests_schema_version;
@@ -13,24 +13,32 @@ $body$
         WHERE evtname = 'create_table_trigger';
 
         IF count = 0 THEN
-            -- A function to be triggered when CREATE TABLE is executed
+            -- A function to be triggered when tables are created, altered or dropped
             EXECUTE 'CREATE FUNCTION on_create_table_event() RETURNS EVENT_TRIGGER AS
                 $innerbody$
                 DECLARE
                     obj record;
+                    version_sequence regclass;
                 BEGIN
                     FOR obj IN SELECT * FROM pg_event_trigger_ddl_commands()
                         LOOP
-                            IF obj.object_type = ''table''::text THEN
+                            IF obj.command_tag = ''CREATE TABLE'' AND obj.object_type = ''table''::text THEN
                                 PERFORM test_track_inserts(obj.objid);
                             END IF;
                         END LOOP;
+                    -- Tables or foreign keys changed, cached foreign key graphs are stale. Foreign keys may reference
+                    -- tables of other schemas and changed schema is not known for DROP, so versions of all schemas
+                    -- are increased, not only the one found through search_path.
+                    FOR version_sequence IN SELECT oid FROM pg_class WHERE relname = ''t_tests_schema_version'' AND relkind = ''S''
+                        LOOP
+                            PERFORM nextval(version_sequence);
+                        END LOOP;
                 END ;
                 $innerbody$
                     language ''plpgsql'';';
 
-            -- Create event trigger to call function above when CREATE TABLE is executed
-            EXECUTE 'CREATE EVENT TRIGGER create_table_trigger ON ddl_command_end WHEN TAG in (''CREATE TABLE'') EXECUTE FUNCTION on_create_table_event();';
+            -- Create event trigger to call function above when CREATE, ALTER or DROP TABLE is executed
+            EXECUTE 'CREATE EVENT TRIGGER create_table_trigger ON ddl_command_end WHEN TAG in (''CREATE TABLE'', ''ALTER TABLE'', ''DROP TABLE'') EXECUTE FUNCTION on_create_table_event();';
         ELSE
             RAISE NOTICE 'create_table_trigger event trigger already exists';
         END IF;
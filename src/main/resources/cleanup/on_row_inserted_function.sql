@@ -1,7 +1,8 @@
 CREATE FUNCTION test_on_row_inserted() RETURNS TRIGGER AS
 $body$
 BEGIN
-    INSERT INTO t_tests_changes_tracking VALUES (TG_TABLE_NAME::varchar);
+    -- Table is stored once per test, no matter how many inserts are executed
+    INSERT INTO t_tests_changes_tracking VALUES (TG_TABLE_NAME::varchar) ON CONFLICT DO NOTHING;
     RETURN NULL;
 END;
 $body$
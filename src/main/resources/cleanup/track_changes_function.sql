@@ -0,0 +1,21 @@
+-- Function to register a baseline table for updates, deletes and truncates (inserts are tracked by test_track_inserts)
+-- Baseline tables are restored from snapshot, so any modification of their data should be tracked
+CREATE OR REPLACE FUNCTION test_track_changes(target_table regclass) RETURNS void AS
+$body$
+DECLARE
+    _q_txt        text;
+    _trigger_name text;
+BEGIN
+    _trigger_name = 'tg_change_' || target_table;
+    IF length(_trigger_name) > 63 THEN
+        _trigger_name = LEFT(_trigger_name, 63);
+    END IF;
+    EXECUTE 'DROP TRIGGER IF EXISTS ' || _trigger_name || ' ON ' || target_table;
+
+    _q_txt = 'CREATE TRIGGER ' || _trigger_name || ' BEFORE UPDATE OR DELETE OR TRUNCATE ON ' ||
+             target_table ||
+             ' FOR EACH STATEMENT EXECUTE PROCEDURE test_on_row_inserted();';
+    EXECUTE _q_txt;
+END
+$body$
+    language 'plpgsql';
@@ -0,0 +1,106 @@
+package com.github.curiousoddman.curioustestutils.json;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.skyscreamer.jsonassert.Customization;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashTest {
+    private static final String EXPECTED = "{\"a\": [1, 2], \"b\": 1.0, \"c\": \"text\"}";
+    private static final String ACTUAL = "{\"a\":[1,2],\"b\":1,\"c\":\"text\"}";
+
+    @TempDir
+    Path tempDir;
+
+    Path expectedFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        expectedFile = tempDir.resolve("expected.json");
+        Files.writeString(expectedFile, EXPECTED);
+    }
+
+    @Test
+    void hashIsIndependentOfKeyOrderAndNumberFormatTest() throws IOException {
+        assertEquals(
+                ContentHash.actualHash("{\"a\":[1,2],\"b\":1.0,\"c\":\"text\"}", List.of()),
+                ContentHash.actualHash("{\"c\":\"text\",\"b\":1,\"a\":[1,2]}", List.of())
+        );
+        assertNotEquals(
+                ContentHash.actualHash("{\"a\":[2,1],\"b\":1,\"c\":\"text\"}", List.of()),
+                ContentHash.actualHash(ACTUAL, List.of())
+        );
+    }
+
+    @Test
+    void ignoredValuesDoNotAffectHashTest() throws IOException {
+        List<Customization> ignored = List.of(new Customization("c", (o1, o2) -> true));
+        assertEquals(
+                ContentHash.actualHash(ACTUAL, ignored),
+                ContentHash.actualHash("{\"a\":[1,2],\"b\":1,\"c\":\"another-text\"}", ignored)
+        );
+        List<Customization> notFound = List.of(new Customization("d", (o1, o2) -> true));
+        assertTrue(ContentHash.actualHash(ACTUAL, notFound).isEmpty());
+    }
+
+    @Test
+    void sidecarBecomesStaleWhenExpectedFileChangesTest() throws IOException {
+        String actualHash = ContentHash.actualHash(ACTUAL, List.of()).orElseThrow();
+        assertFalse(ContentHash.matchesSidecar(expectedFile, actualHash));
+
+        ContentHash.writeSidecar(expectedFile, EXPECTED, actualHash);
+        assertTrue(ContentHash.matchesSidecar(expectedFile, actualHash));
+
+        Files.writeString(expectedFile, "{\"a\": [1, 2], \"b\": 2, \"c\": \"text\"}");
+        assertFalse(ContentHash.matchesSidecar(expectedFile, actualHash));
+    }
+
+    @Test
+    void expectedFileIsNotReadWhileModificationTimeAndSizeAreUnchangedTest() throws IOException {
+        String actualHash = ContentHash.actualHash(ACTUAL, List.of()).orElseThrow();
+        ContentHash.writeSidecar(expectedFile, EXPECTED, actualHash);
+        FileTime modified = Files.getLastModifiedTime(expectedFile);
+
+        // same size and modification time - contents are trusted without reading them
+        Files.writeString(expectedFile, EXPECTED.replace("text", "tekt"));
+        Files.setLastModifiedTime(expectedFile, modified);
+        assertTrue(ContentHash.matchesSidecar(expectedFile, actualHash));
+
+        // touched - contents are hashed again
+        Files.setLastModifiedTime(expectedFile, FileTime.from(Instant.now().plusSeconds(60)));
+        assertFalse(ContentHash.matchesSidecar(expectedFile, actualHash));
+    }
+
+    @Test
+    void sidecarIsWrittenOutsideOfSourceTreeTest() throws IOException {
+        String actualHash = ContentHash.actualHash(ACTUAL, List.of()).orElseThrow();
+        ContentHash.writeSidecar(expectedFile, EXPECTED, actualHash);
+
+        assertTrue(Files.exists(ContentHash.sidecarOf(expectedFile)));
+        assertTrue(ContentHash.sidecarOf(expectedFile).startsWith(ContentHash.SIDECAR_ROOT));
+        assertEquals(
+                ContentHash.SIDECAR_ROOT.resolve("some/file.json" + ContentHash.SIDECAR_EXTENSION),
+                ContentHash.sidecarOf(ExpectedFiles.RESOURCES_ROOT.resolve("some/file.json"))
+        );
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(expectedFile), files.toList());
+        }
+    }
+
+    @Test
+    void sidecarIsNotWrittenWhenExpectedFileChangedDuringComparisonTest() throws IOException {
+        String actualHash = ContentHash.actualHash(ACTUAL, List.of()).orElseThrow();
+        ContentHash.writeSidecar(expectedFile, "{\"a\": [1, 2], \"b\": 1, \"c\": \"text\"}", actualHash);
+
+        assertFalse(Files.exists(ContentHash.sidecarOf(expectedFile)));
+    }
+}
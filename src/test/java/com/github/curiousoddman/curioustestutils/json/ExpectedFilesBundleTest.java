@@ -0,0 +1,47 @@
+package com.github.curiousoddman.curioustestutils.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpectedFilesBundleTest {
+    private static final Path SOURCE = Path.of("src/test/resources/TestUtilsTest");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void packedFilesAreServedFromBundleTest() throws IOException {
+        Path bundleFile = tempDir.resolve("expected.bundle");
+        ExpectedFilesBundle.pack(SOURCE, bundleFile);
+
+        ExpectedFilesBundle bundle = ExpectedFilesBundle.open(bundleFile);
+        assertTrue(bundle.contains("allFieldsPopulatedTest.json"));
+        assertFalse(bundle.contains("missing.json"));
+
+        ByteBuffer contents = bundle.get("allFieldsPopulatedTest.json").orElseThrow();
+        assertEquals(Files.readString(SOURCE.resolve("allFieldsPopulatedTest.json")), StandardCharsets.UTF_8.decode(contents).toString());
+    }
+
+    @Test
+    void unpackRestoresAllFilesTest() throws IOException {
+        Path bundleFile = tempDir.resolve("expected.bundle");
+        Path unpacked = tempDir.resolve("unpacked");
+        ExpectedFilesBundle.pack(SOURCE, bundleFile);
+        ExpectedFilesBundle.unpack(bundleFile, unpacked);
+
+        Set<String> names = ExpectedFilesBundle.open(bundleFile).names();
+        assertEquals(6, names.size());
+        for (String name : names) {
+            assertArrayEquals(Files.readAllBytes(SOURCE.resolve(name)), Files.readAllBytes(unpacked.resolve(name)));
+        }
+    }
+}
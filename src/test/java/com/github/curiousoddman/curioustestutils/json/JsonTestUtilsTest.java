@@ -1,5 +1,9 @@
 package com.github.curiousoddman.curioustestutils.json;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.curiousoddman.curioustestutils.junit.extension.MetricsExtension;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
@@ -7,19 +11,32 @@ import lombok.Data;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.github.curiousoddman.curioustestutils.json.JsonTestUtils.assertJsonEquals;
+import static com.github.curiousoddman.curioustestutils.json.JsonTestUtils.assertJsonEqualsAtMost;
+import static com.github.curiousoddman.curioustestutils.json.JsonTestUtils.assertJsonEqualsWithTolerance;
+import static com.github.curiousoddman.curioustestutils.json.JsonTestUtils.assertJsonLines;
 import static com.github.curiousoddman.curioustestutils.populate.PopulatePojo.populatePojo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MetricsExtension.class)
 class JsonTestUtilsTest {
@@ -46,12 +63,78 @@ class JsonTestUtilsTest {
         }
     }
 
+    @Test
+    void verifyCompressedExpectedFileIsResolvedTest() {
+        assertJsonEquals("compressed/expected-success.json", populatePojo(new TestPojo(), 10500));
+    }
+
+    @Test
+    void verifyCompressedExpectedFileErrorTest() {
+        TestPojo testPojo = populatePojo(new TestPojo(), 10500);
+        testPojo.setText("another-text-that-does-not-match");
+        assertThrows(AssertionError.class, () -> assertJsonEquals("compressed/expected-success.json.gz", testPojo));
+    }
+
+    @Test
+    void verifyConcurrentAssertionsWithDatesTest() {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            assertTimeout(Duration.ofSeconds(30), () -> {
+                List<Future<?>> futures = IntStream.range(0, 400)
+                        .mapToObj(i -> executor.submit(() -> assertJsonEquals("expected-success.json", populatePojo(new TestPojo(), 10500))))
+                        .collect(Collectors.toList());
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void verifyCustomObjectMapperTest() {
+        ObjectMapper snakeCaseMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        TestPojo testPojo = populatePojo(new TestPojo(), 10500);
+        assertJsonEquals("expected-success-snake-case.json", testPojo, snakeCaseMapper);
+
+        try {
+            JsonTestUtils.setObjectMapper(snakeCaseMapper);
+            assertJsonEquals("expected-success-snake-case.json", testPojo);
+        } finally {
+            JsonTestUtils.resetObjectMapper();
+        }
+        assertJsonEquals("expected-success.json", testPojo);
+    }
+
     @Test
     void verifyError() {
         TestPojo testPojo = populatePojo(new TestPojo(), 10500);
         assertThrows(AssertionError.class, () -> assertJsonEquals("expected-failed.json", testPojo));
     }
 
+    @Test
+    void verifyToleranceTest() {
+        TestPojo testPojo = populatePojo(new TestPojo(), 10500);
+        testPojo.setCount(testPojo.getCount() + 5);
+        testPojo.setPrimitive(testPojo.getPrimitive() - 5);
+        assertJsonEqualsWithTolerance("expected-success.json", testPojo, 0.01, "count", "primitive");
+        assertThrows(AssertionError.class, () -> assertJsonEqualsWithTolerance("expected-success.json", testPojo, 0.0001, "count", "primitive"));
+    }
+
+    @Test
+    void verifyAtMostTest() {
+        TestPojo testPojo = populatePojo(new TestPojo(), 10500);
+        testPojo.setCount(testPojo.getCount() - 5000);
+        testPojo.setPrimitive(testPojo.getPrimitive() + 5);
+        assertJsonEqualsAtMost("expected-success.json", testPojo, 0.01, "count", "primitive");
+        testPojo.setPrimitive(testPojo.getPrimitive() + 500);
+        assertThrows(AssertionError.class, () -> assertJsonEqualsAtMost("expected-success.json", testPojo, 0.01, "count", "primitive"));
+    }
+
     @Test
     void verifyNullIsNotSavedToJson() {
         assertJsonEquals("expected-without-nulls.json", new TestPojo());
@@ -98,6 +181,62 @@ class JsonTestUtilsTest {
                 .isEqualTo("expected-success-array-elemnt-with-excluded-field.json");
     }
 
+    @Test
+    void verifyListElementExclusionsWorkInParallelChunksTest() {
+        List<TestPojo> list = new ArrayList<>(List.of(
+                populatePojo(new TestPojo(), 10501),
+                populatePojo(new TestPojo(), 10500),
+                populatePojo(new TestPojo(), 10502)
+        ));
+        Collections.shuffle(list);
+
+        JsonTestUtils.assertJsonArray(list)
+                .orderedBy(TestPojo::getCount)
+                .ignoring("*.offsetDateTime")
+                .inParallelChunks(2)
+                .isEqualTo("expected-success-array-elemnt-with-excluded-field.json");
+    }
+
+    @Test
+    void verifyParallelChunksReportFailureIndexTest() {
+        TestPojo testPojo = populatePojo(new TestPojo(), 10502);
+        testPojo.setText("another-text-that-does-not-match");
+        List<TestPojo> list = List.of(populatePojo(new TestPojo(), 10500), populatePojo(new TestPojo(), 10501), testPojo);
+
+        AssertionError error = assertThrows(AssertionError.class, () -> JsonTestUtils.assertJsonArray(list)
+                .ignoring("*.offsetDateTime")
+                .inParallelChunks(2)
+                .isEqualTo("expected-success-array-elemnt-with-excluded-field.json"));
+        assertTrue(error.getMessage().startsWith("[2].text"), error.getMessage());
+    }
+
+    @Test
+    void verifyJsonLinesTest() {
+        Stream<TestPojo> stream = IntStream.range(10500, 10503).mapToObj(seed -> populatePojo(new TestPojo(), seed));
+        assertJsonLines("expected-lines.ndjson", stream);
+    }
+
+    @Test
+    void verifyJsonLinesStopOnFirstMismatchTest() {
+        Iterator<TestPojo> iterator = IntStream.range(10500, 10510)
+                .mapToObj(seed -> populatePojo(new TestPojo(), seed))
+                .peek(testPojo -> testPojo.setText("another-text-that-does-not-match"))
+                .iterator();
+        AssertionError error = assertThrows(AssertionError.class, () -> assertJsonLines("expected-lines.ndjson", iterator));
+        assertTrue(error.getMessage().startsWith("Line 1: "), error.getMessage());
+        assertTrue(iterator.hasNext());
+        assertEquals(10501, iterator.next().getCount());
+    }
+
+    @Test
+    void verifyJsonLinesExclusionsAndLengthMismatchTest() {
+        Stream<TestPojo> stream = IntStream.range(10500, 10502)
+                .mapToObj(seed -> populatePojo(new TestPojo(), seed))
+                .peek(testPojo -> testPojo.setText("another-text-that-does-not-match"));
+        AssertionError error = assertThrows(AssertionError.class, () -> assertJsonLines("expected-lines.ndjson", stream, "text"));
+        assertTrue(error.getMessage().startsWith("Line 3: expected "), error.getMessage());
+    }
+
     @Test
     void verifyMetricsTest(MeterRegistry meterRegistry) {
         Metrics.counter("test-counter", "tag1", "val1", "tag2", "val2").increment(100500);
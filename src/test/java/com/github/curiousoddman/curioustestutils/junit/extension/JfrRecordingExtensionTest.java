@@ -0,0 +1,30 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MetricsExtension.class)
+class JfrRecordingExtensionTest {
+    MeterRegistry registry;
+
+    @Test
+    @JfrRecording(thresholdMillis = 1)
+    void eventsAreConvertedToMetersTest(MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(20));
+        System.gc();
+    }
+
+    @AfterEach
+    void verifyMeters() {
+        assertTrue(registry.get(JfrRecordingExtension.THREAD_PARK).tag("class", getClass().getName()).timer().count() > 0);
+        assertTrue(registry.get(JfrRecordingExtension.GC_PAUSE).timer().count() > 0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+class JfrRecordingFileTest {
+
+    @Test
+    void recordingOfFailedInvocationIsKeptTest() throws IOException {
+        LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(FirstRepetitionFailsTest.class))
+                .build());
+
+        List<Path> recordings;
+        try (Stream<Path> files = Files.list(Path.of("target", "jfr"))) {
+            recordings = files.filter(file -> file.getFileName().toString().startsWith(FirstRepetitionFailsTest.class.getName()))
+                    .toList();
+        }
+        try {
+            assertEquals(1, recordings.size(), recordings::toString);
+            assertTrue(recordings.get(0).getFileName().toString().endsWith(".#1.jfr"), recordings::toString);
+        } finally {
+            for (Path recording : recordings) {
+                Files.delete(recording);
+            }
+        }
+    }
+
+    static class FirstRepetitionFailsTest {
+        @RepeatedTest(2)
+        @JfrRecording
+        void repeatedTest(RepetitionInfo repetitionInfo) {
+            assertTrue(repetitionInfo.getCurrentRepetition() > 1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsExporterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void snapshotsAreAppendedAsJsonLinesTest() throws IOException {
+        Path file = tempDir.resolve("metrics/export.ndjson");
+        MeterRegistry registry = new SimpleMeterRegistry();
+        registry.counter("test-counter", "tag1", "val1").increment(3);
+        registry.timer("test-timer").record(2, TimeUnit.SECONDS);
+
+        try (MetricsExporter exporter = new MetricsExporter(file)) {
+            exporter.export("TestClass", "firstTest", "firstTest()", registry);
+            exporter.export("TestClass", "emptyTest", "emptyTest()", new SimpleMeterRegistry());
+            exporter.export("TestClass", "secondTest", "secondTest()", registry);
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode first = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("firstTest", first.get("testMethod").asText());
+        for (JsonNode meter : first.get("meters")) {
+            if (meter.get("name").asText().equals("test-counter")) {
+                assertEquals("val1", meter.get("tags").get("tag1").asText());
+                assertEquals(3.0, meter.get("measurements").get("COUNT").asDouble());
+            } else {
+                assertEquals("TIMER", meter.get("type").asText());
+                assertEquals(2.0, meter.get("measurements").get("TOTAL_TIME").asDouble());
+            }
+        }
+        assertEquals("secondTest", new ObjectMapper().readTree(lines.get(1)).get("testMethod").asText());
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Execution(ExecutionMode.CONCURRENT)
+@ExtendWith(MetricsExtension.class)
+class MetricsExtensionTest {
+    static ExecutorService sharedPool;
+
+    @BeforeAll
+    static void startPool() {
+        sharedPool = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        sharedPool.shutdownNow();
+    }
+
+    @RepeatedTest(20)
+    void concurrentTestsDoNotShareMetersTest(MeterRegistry meterRegistry) throws Exception {
+        for (int i = 0; i < 10; i++) {
+            Metrics.counter("shared-counter").increment();
+            Metrics.timer("shared-timer").record(1, TimeUnit.MILLISECONDS);
+            Thread.sleep(1);
+        }
+        sharedPool.submit(MetricsExtension.wrap(() -> Metrics.counter("shared-counter").increment())).get();
+
+        Thread thread = new Thread(MetricsExtension.wrap(() -> Metrics.counter("shared-counter").increment()));
+        thread.start();
+        thread.join();
+
+        assertEquals(12, meterRegistry.get("shared-counter").counter().count());
+        assertEquals(10, meterRegistry.get("shared-timer").timer().count());
+    }
+
+    @RepeatedTest(5)
+    @ResourceLock(value = Resources.GLOBAL, mode = ResourceAccessMode.READ_WRITE)
+    void gaugeIsRegisteredInTestRegistryTest(MeterRegistry meterRegistry) {
+        AtomicInteger value = Metrics.gauge("test-gauge", new AtomicInteger(42));
+        assertEquals(42, meterRegistry.get("test-gauge").gauge().value());
+        value.set(43);
+        assertEquals(43, meterRegistry.get("test-gauge").gauge().value());
+    }
+
+    @Test
+    void registryIsAvailableFromCurrentThreadTest(MeterRegistry meterRegistry) {
+        assertEquals(meterRegistry, MetricsExtension.currentRegistry().orElseThrow());
+    }
+}
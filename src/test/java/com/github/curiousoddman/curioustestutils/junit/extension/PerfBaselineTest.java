@@ -0,0 +1,56 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import com.github.curiousoddman.curioustestutils.junit.extension.PerfTestExtension.PerfResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerfBaselineTest {
+    private static final String BASELINE = "perf/PerfBaselineTest/baseline.json";
+
+    @Test
+    void statisticsAreComputedFromSamplesTest() {
+        PerfResult result = PerfResult.of(millis(9, 1, 2, 3, 4, 5, 6, 7, 8, 10));
+
+        assertEquals(new PerfResult(10, 5.5, 5, 9), result);
+    }
+
+    @Test
+    void fasterRunsPassTest() {
+        PerfTestExtension.assertWithinBaseline(BASELINE, PerfResult.of(millis(1, 1, 1, 1, 1, 1, 1, 1, 1, 1)), 0.25);
+        PerfTestExtension.assertWithinBaseline(BASELINE, PerfResult.of(millis(6, 6, 6, 6, 6, 6, 6, 6, 6, 6)), 0.25);
+    }
+
+    @Test
+    void slowerRunsFailTest() {
+        AssertionError error = assertThrows(AssertionError.class, () -> PerfTestExtension.assertWithinBaseline(
+                BASELINE, PerfResult.of(millis(1, 1, 1, 1, 1, 1, 1, 1, 7, 7)), 0.25));
+        assertTrue(error.getMessage().contains("p90"), error.getMessage());
+    }
+
+    @Test
+    void runsWithinResolutionOfZeroBaselinePassTest() {
+        PerfTestExtension.assertWithinBaseline("perf/PerfBaselineTest/zero-baseline.json", PerfResult.of(micros(1, 1, 1, 1, 1, 1, 1, 1, 1, 1)), 0.25);
+        assertThrows(AssertionError.class, () -> PerfTestExtension.assertWithinBaseline(
+                "perf/PerfBaselineTest/zero-baseline.json", PerfResult.of(micros(2, 2, 2, 2, 2, 2, 2, 2, 2, 2)), 0.25));
+    }
+
+    @Test
+    void iterationsMustMatchTest() {
+        assertThrows(AssertionError.class, () -> PerfTestExtension.assertWithinBaseline(
+                BASELINE, PerfResult.of(millis(1, 1, 1, 1, 1)), 0.25));
+    }
+
+    private static long[] millis(long... values) {
+        return Arrays.stream(values).map(TimeUnit.MILLISECONDS::toNanos).toArray();
+    }
+
+    private static long[] micros(long... values) {
+        return Arrays.stream(values).map(TimeUnit.MICROSECONDS::toNanos).toArray();
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MetricsExtension.class)
+class PerfTestExtensionTest {
+    static final AtomicInteger invocations = new AtomicInteger();
+    MeterRegistry registry;
+
+    /**
+     * Baseline is an upper bound far above the run time of the body: timings are compared in {@link PerfBaselineTest}.
+     */
+    @PerfTest(warmup = 3, iterations = 10)
+    void invocationsAreMeasuredTest(MeterRegistry meterRegistry) {
+        invocations.incrementAndGet();
+        registry = meterRegistry;
+    }
+
+    @AfterEach
+    void verifyTimerIsRecorded() {
+        assertEquals(10, registry.get(PerfTestExtension.TIMER_NAME).tag("method", "invocationsAreMeasuredTest").timer().count());
+    }
+
+    @AfterAll
+    static void verifyInvocations() {
+        assertEquals(13, invocations.get());
+    }
+}
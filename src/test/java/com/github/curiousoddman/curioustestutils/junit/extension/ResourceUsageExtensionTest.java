@@ -0,0 +1,44 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MetricsExtension.class)
+@CpuTimeBudget(maxMillis = 10_000)
+class ResourceUsageExtensionTest {
+    MeterRegistry registry;
+    byte[] data;
+
+    @Test
+    @AllocationBudget(maxBytes = 20_000_000)
+    void allocationIsMeasuredTest(MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+        data = new byte[10_000_000];
+    }
+
+    @AfterEach
+    void verifyMetersAreRecorded() {
+        if (registry != null) {
+            double allocated = registry.get(ResourceUsageExtension.ALLOCATED_BYTES).tag("method", "allocationIsMeasuredTest").summary().totalAmount();
+            assertTrue(allocated >= 10_000_000, "allocated " + allocated);
+            assertEquals(1, registry.get(ResourceUsageExtension.CPU_TIME).timer().count());
+        }
+    }
+
+    @Test
+    void exceededBudgetFailsTest() throws NoSuchMethodException {
+        AllocationBudget allocationBudget = getClass().getDeclaredMethod("allocationIsMeasuredTest", MeterRegistry.class).getAnnotation(AllocationBudget.class);
+        CpuTimeBudget cpuTimeBudget = getClass().getAnnotation(CpuTimeBudget.class);
+
+        ResourceUsageExtension.verifyBudgets(Optional.of(allocationBudget), Optional.of(cpuTimeBudget), new ResourceUsageExtension.Usage(20_000_000, 1_000_000));
+        AssertionError error = assertThrows(AssertionError.class, () -> ResourceUsageExtension.verifyBudgets(
+                Optional.of(allocationBudget), Optional.of(cpuTimeBudget), new ResourceUsageExtension.Usage(20_000_001, 10_001_000_000L)));
+        assertEquals("Test is out of budget: allocated 20000001 bytes > 20000000 bytes, cpu time 10001 ms > 10000 ms", error.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingMeterRegistryTest {
+    final AtomicReference<MeterRegistry> current = new AtomicReference<>();
+    final AtomicInteger runningTests = new AtomicInteger(1);
+    final CompositeMeterRegistry composite = new CompositeMeterRegistry();
+    final RoutingMeterRegistry routing = new RoutingMeterRegistry(() -> Optional.ofNullable(current.get()), runningTests::get, composite);
+    final MeterRegistry first = new SimpleMeterRegistry();
+    final MeterRegistry second = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        composite.add(routing);
+    }
+
+    @Test
+    void consecutiveTestsObserveTheirOwnGaugesTest() {
+        current.set(first);
+        composite.gauge("test-gauge", new AtomicInteger(1));
+        assertEquals(1, first.get("test-gauge").gauge().value());
+        routing.release(first);
+
+        current.set(second);
+        composite.gauge("test-gauge", new AtomicInteger(2));
+        assertEquals(2, second.get("test-gauge").gauge().value());
+        assertEquals(1, first.get("test-gauge").gauge().value());
+    }
+
+    @Test
+    void gaugeCannotBeSharedByConcurrentTestsTest() {
+        current.set(first);
+        runningTests.set(2);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> composite.gauge("test-gauge", new AtomicInteger(1)));
+        assertTrue(error.getMessage().contains("2 tests are running"), error.getMessage());
+        assertNull(first.find("test-gauge").gauge());
+    }
+
+    @Test
+    void recordingsAreRoutedToCurrentRegistryTest() {
+        runningTests.set(2);
+        current.set(first);
+        composite.counter("test-counter").increment();
+        current.set(second);
+        composite.counter("test-counter").increment(2);
+
+        assertEquals(1, first.get("test-counter").counter().count());
+        assertEquals(2, second.get("test-counter").counter().count());
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.curiousoddman.curioustestutils.junit.extension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MetricsExtension.class)
+class StressTestExtensionTest {
+    static final AtomicLong operations = new AtomicLong();
+    static boolean contentionMonitoringEnabled;
+    MeterRegistry registry;
+
+    @BeforeAll
+    static void recordContentionMonitoring() {
+        contentionMonitoringEnabled = ManagementFactory.getThreadMXBean().isThreadContentionMonitoringEnabled();
+    }
+
+    @StressTest(threads = {1, 2}, operations = 2_000, minThroughput = 100)
+    void operationsAreSharedByThreadsTest(MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+        operations.incrementAndGet();
+    }
+
+    @StressTest(threads = 4, durationMillis = 50, virtualThreads = true)
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadsTest(MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+    }
+
+    @AfterEach
+    void verifyMeters() {
+        for (String threads : new String[]{"1", "2"}) {
+            if (registry.find(StressTestExtension.OPERATIONS).tag("threads", threads).counters().isEmpty()) {
+                continue;
+            }
+            double perThread = registry.get(StressTestExtension.OPERATIONS).tag("threads", threads).counters().stream()
+                    .mapToDouble(counter -> counter.count())
+                    .sum();
+            assertEquals(2_000, perThread);
+            assertEquals(2_000, registry.get(StressTestExtension.LATENCY).tag("threads", threads).timer().count());
+            assertTrue(registry.get(StressTestExtension.THROUGHPUT).tag("threads", threads).gauge().value() > 0);
+        }
+    }
+
+    @AfterAll
+    static void verifyOperations() {
+        assertEquals(4_000, operations.get());
+        assertEquals(contentionMonitoringEnabled, ManagementFactory.getThreadMXBean().isThreadContentionMonitoringEnabled());
+    }
+}
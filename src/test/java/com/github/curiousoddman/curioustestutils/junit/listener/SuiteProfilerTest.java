@@ -0,0 +1,115 @@
+package com.github.curiousoddman.curioustestutils.junit.listener;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuiteProfilerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reportContainsTestsClassesAndPhasesTest() throws IOException {
+        Path reportFile = tempDir.resolve("profile.json");
+        LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(ProfiledTest.class))
+                .configurationParameter(SuiteProfiler.ENABLED_PROPERTY, "true")
+                .configurationParameter(SuiteProfiler.REPORT_PROPERTY, reportFile.toString())
+                .build());
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(2, report.get("tests").size());
+        assertEquals(ProfiledTest.class.getName() + "#slowTest()", report.get("tests").get(0).get("name").asText());
+        assertEquals("SUCCESSFUL", report.get("tests").get(0).get("status").asText());
+        assertEquals(ProfiledTest.class.getName(), report.get("classes").get(0).get("name").asText());
+        assertEquals(2, report.get("phases").get("work").get("count").asLong());
+        assertTrue(report.get("phases").get("work").get("millis").asLong() >= 60);
+        assertEquals(1, report.get("tests").get(0).get("phases").get("work").get("count").asLong());
+    }
+
+    @Test
+    void nestedSessionDoesNotReplaceProfilerOfOuterSessionTest() throws IOException {
+        Path reportFile = tempDir.resolve("outer.json");
+        NestingTest.nestedReportFile = tempDir.resolve("nested.json");
+        LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(NestingTest.class))
+                .configurationParameter(SuiteProfiler.ENABLED_PROPERTY, "true")
+                .configurationParameter(SuiteProfiler.REPORT_PROPERTY, reportFile.toString())
+                .build());
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(1, report.get("phases").get("after-nested").get("count").asLong());
+        JsonNode nestedReport = new ObjectMapper().readTree(NestingTest.nestedReportFile.toFile());
+        assertEquals(2, nestedReport.get("phases").get("work").get("count").asLong());
+        assertFalse(nestedReport.get("phases").has("after-nested"));
+    }
+
+    @Test
+    void invocationsOfTemplatesAreReportedAsTestsTest() throws IOException {
+        Path reportFile = tempDir.resolve("templates.json");
+        LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(TemplateTest.class))
+                .configurationParameter(SuiteProfiler.ENABLED_PROPERTY, "true")
+                .configurationParameter(SuiteProfiler.REPORT_PROPERTY, reportFile.toString())
+                .build());
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(1, report.get("classes").size());
+        assertEquals(TemplateTest.class.getName(), report.get("classes").get(0).get("name").asText());
+        Set<String> tests = new TreeSet<>();
+        report.get("tests").forEach(test -> tests.add(test.get("name").asText()));
+        assertEquals(Set.of(
+                TemplateTest.class.getName() + "#repeatedTest() repetition 1 of 2",
+                TemplateTest.class.getName() + "#repeatedTest() repetition 2 of 2"
+        ), tests);
+    }
+
+    static class TemplateTest {
+        @RepeatedTest(2)
+        void repeatedTest() {
+            SuiteProfiler.recordPhase("work", Duration.ofMillis(1));
+        }
+    }
+
+    static class NestingTest {
+        static Path nestedReportFile;
+
+        @Test
+        void nestedSessionTest() {
+            LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+                    .selectors(selectClass(ProfiledTest.class))
+                    .configurationParameter(SuiteProfiler.ENABLED_PROPERTY, "true")
+                    .configurationParameter(SuiteProfiler.REPORT_PROPERTY, nestedReportFile.toString())
+                    .build());
+            SuiteProfiler.recordPhase("after-nested", Duration.ofMillis(5));
+        }
+    }
+
+    static class ProfiledTest {
+        @Test
+        void fastTest() {
+            SuiteProfiler.recordPhase("work", Duration.ofMillis(10));
+        }
+
+        @Test
+        void slowTest() throws InterruptedException {
+            SuiteProfiler.recordPhase("work", Duration.ofMillis(50));
+            Thread.sleep(50);
+        }
+    }
+}
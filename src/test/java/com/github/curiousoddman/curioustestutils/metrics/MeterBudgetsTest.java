@@ -0,0 +1,84 @@
+package com.github.curiousoddman.curioustestutils.metrics;
+
+import com.github.curiousoddman.curioustestutils.junit.extension.MetricsExtension;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MetricsExtension.class)
+class MeterBudgetsTest {
+
+    @Test
+    void timerWithinBudgetTest(MeterRegistry meterRegistry) {
+        MeterBudgets.publishPercentiles(meterRegistry, 0.5, 0.99);
+        Timer timer = meterRegistry.timer("test-timer", "tag", "val");
+        for (int i = 1; i <= 100; i++) {
+            timer.record(Duration.ofMillis(i % 10 == 0 ? 4 : 1));
+        }
+
+        MeterBudgets.assertTimer(meterRegistry, "test-timer", "tag", "val")
+                .hasCount(100)
+                .hasMeanAtMost(Duration.ofMillis(2))
+                .hasMaxAtMost(Duration.ofMillis(4))
+                .hasPercentileAtMost(0.99, Duration.ofMillis(5))
+                .isWithinBudget();
+    }
+
+    @Test
+    void violationsAreReportedWithDistributionTest(MeterRegistry meterRegistry) {
+        Timer timer = Timer.builder("test-timer")
+                .serviceLevelObjectives(Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(20))
+                .register(meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            timer.record(Duration.ofMillis(10));
+        }
+
+        AssertionError error = assertThrows(AssertionError.class, () -> MeterBudgets.assertTimer(meterRegistry, "test-timer")
+                .hasCount(99)
+                .hasMeanAtMost(Duration.ofMillis(5))
+                .hasPercentileAtMost(0.99, Duration.ofMillis(5))
+                .isWithinBudget());
+        assertTrue(error.getMessage().contains("count 100 != 99"), error.getMessage());
+        assertTrue(error.getMessage().contains("mean 10.000ms > 5.000ms"), error.getMessage());
+        assertTrue(error.getMessage().contains("p99 20.000ms > 5.000ms"), error.getMessage());
+        assertTrue(error.getMessage().contains("histogram={"), error.getMessage());
+    }
+
+    @Test
+    void summaryToleranceTest(MeterRegistry meterRegistry) {
+        DistributionSummary summary = meterRegistry.summary("test-summary");
+        summary.record(105);
+
+        MeterBudgets.assertSummary(meterRegistry, "test-summary")
+                .withTolerance(0.1)
+                .hasMaxAtMost(100)
+                .isWithinBudget();
+        assertThrows(AssertionError.class, () -> MeterBudgets.assertSummary(meterRegistry, "test-summary")
+                .hasMaxAtMost(100)
+                .isWithinBudget());
+        assertThrows(IllegalStateException.class, () -> MeterBudgets.assertSummary(meterRegistry, "test-summary")
+                .hasPercentileAtMost(0.99, 100));
+    }
+
+    @Test
+    void toleranceAppliesToChecksChainedBeforeItTest(MeterRegistry meterRegistry) {
+        DistributionSummary summary = meterRegistry.summary("test-summary");
+        summary.record(105);
+
+        MeterBudgets.assertSummary(meterRegistry, "test-summary")
+                .hasMaxAtMost(100)
+                .hasMeanAtMost(105)
+                .withTolerance(0.1)
+                .isWithinBudget();
+        MeterBudgets.assertSummary(meterRegistry, "test-summary")
+                .hasMaxAtMost(105)
+                .isWithinBudget();
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestPropertySource(properties = {
+        "curious.test.container.current.schema.name = public",
+        "curious.test.container.baseline.tables = seed_table"
+})
+class BaselineTablesTest extends ContainerTest {
+    private static final List<String> SEED = List.of("first", "second");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TestCleanUpService testCleanUpService;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("CREATE TABLE seed_table (id INT PRIMARY KEY, name VARCHAR)");
+        jdbcTemplate.update("INSERT INTO seed_table VALUES (1, 'first'), (2, 'second')");
+        testCleanUpService.snapshotBaseline();
+    }
+
+    @Test
+    @Order(1)
+    void firstTestModifiesBaselineTest() {
+        assertEquals(SEED, names());
+        jdbcTemplate.update("INSERT INTO seed_table VALUES (3, 'written by first test')");
+        jdbcTemplate.update("UPDATE seed_table SET name = 'updated by first test' WHERE id = 1");
+    }
+
+    @Test
+    @Order(2)
+    void secondTestSeesOnlyBaselineTest() {
+        assertEquals(SEED, names());
+    }
+
+    private List<String> names() {
+        return jdbcTemplate.queryForList("SELECT name FROM seed_table ORDER BY id", String.class);
+    }
+}
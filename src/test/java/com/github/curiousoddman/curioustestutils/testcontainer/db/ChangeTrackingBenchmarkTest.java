@@ -0,0 +1,71 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of change tracking on insert-heavy test: unlogged deduplicated tracking table compared to the previous scheme,
+ * where every INSERT statement added a row to a logged table.
+ * Run with {@code -Drun.benchmarks=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "run.benchmarks", matches = "true")
+@TestPropertySource(properties = "curious.test.container.current.schema.name = schema_name")
+class ChangeTrackingBenchmarkTest extends ContainerTest {
+    private static final int INSERTS = 10_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TestCleanUpService testCleanUpService;
+
+    @Test
+    void deduplicatedTrackingIsCheaperTest() {
+        testCleanUpService.cleanUp();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS bench_legacy_tracking (table_name VARCHAR(100))");
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION bench_legacy_on_row_inserted() RETURNS TRIGGER AS
+                $body$
+                BEGIN
+                    INSERT INTO bench_legacy_tracking VALUES (TG_TABLE_NAME::varchar);
+                    RETURN NULL;
+                END;
+                $body$ LANGUAGE plpgsql""");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS bench_untracked (a INTEGER)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS bench_legacy (a INTEGER)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS bench_tracked (a INTEGER)");
+        // tables created above are tracked by event trigger, replace tracking of two of them
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS tg_insert_bench_untracked ON bench_untracked");
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS tg_insert_bench_legacy ON bench_legacy");
+        jdbcTemplate.execute("CREATE TRIGGER tg_insert_bench_legacy BEFORE INSERT ON bench_legacy FOR EACH STATEMENT EXECUTE PROCEDURE bench_legacy_on_row_inserted()");
+
+        Duration untracked = insert("bench_untracked");
+        Duration legacy = insert("bench_legacy");
+        Duration tracked = insert("bench_tracked");
+
+        log.info("{} inserts: untracked {} ms, legacy tracking {} ms ({} rows), deduplicated tracking {} ms ({} rows)",
+                 INSERTS, untracked.toMillis(),
+                 legacy.toMillis(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bench_legacy_tracking", Integer.class),
+                 tracked.toMillis(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_tests_changes_tracking WHERE table_name = 'bench_tracked'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM t_tests_changes_tracking WHERE table_name = 'bench_tracked'", Integer.class));
+
+        jdbcTemplate.execute("DROP TABLE bench_untracked, bench_legacy, bench_tracked, bench_legacy_tracking");
+        jdbcTemplate.execute("DROP FUNCTION bench_legacy_on_row_inserted()");
+    }
+
+    private Duration insert(String table) {
+        long start = System.nanoTime();
+        for (int i = 0; i < INSERTS; i++) {
+            jdbcTemplate.update("INSERT INTO " + table + " VALUES (?)", i);
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentCleanUpTest {
+
+    @Test
+    void failuresOfAllSchemasAreReportedTest() {
+        TestCleanUpService testCleanUpService = new TestCleanUpService(List.of(
+                new JdbcTemplate(new UnavailableDataSource("schema_1")),
+                new JdbcTemplate(new UnavailableDataSource("schema_2")),
+                new JdbcTemplate(new UnavailableDataSource("schema_3"))
+        ));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, testCleanUpService::cleanUp);
+        assertEquals("Cleanup failed for 3 of 3 schemas", exception.getMessage());
+        Set<String> causes = Arrays.stream(exception.getSuppressed())
+                .map(suppressed -> suppressed.getCause().getMessage())
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("schema_1 is unavailable", "schema_2 is unavailable", "schema_3 is unavailable"), causes);
+    }
+
+    @Test
+    void schemaContextIsSetOnCleanUpThreadsOnlyTest() {
+        Map<String, String> contexts = new ConcurrentHashMap<>();
+        TestCleanUpService testCleanUpService = new TestCleanUpService(List.of(
+                new JdbcTemplate(new ContextCapturingDataSource("schema_1", contexts)),
+                new JdbcTemplate(new ContextCapturingDataSource("schema_2", contexts))
+        ));
+        MDC.put("context", "caller");
+        try {
+            assertThrows(IllegalStateException.class, testCleanUpService::cleanUp);
+            assertEquals("caller", MDC.get("context"));
+        } finally {
+            MDC.remove("context");
+            testCleanUpService.destroy();
+        }
+        assertEquals(Map.of("schema_1", "schema_1", "schema_2", "schema_2"), contexts);
+    }
+
+    @Test
+    void cleanUpThreadsAreStoppedOnDestroyTest() {
+        TestCleanUpService testCleanUpService = new TestCleanUpService(List.of(
+                new JdbcTemplate(new UnavailableDataSource("schema_1")),
+                new JdbcTemplate(new UnavailableDataSource("schema_2"))
+        ));
+        testCleanUpService.destroy();
+        assertThrows(RejectedExecutionException.class, testCleanUpService::cleanUp);
+    }
+
+    /**
+     * First connection reports the schema, the next one records logging context of cleanup thread and fails.
+     */
+    static class ContextCapturingDataSource extends AbstractDataSource {
+        private final String schema;
+        private final Map<String, String> contexts;
+        private boolean schemaReported;
+
+        ContextCapturingDataSource(String schema, Map<String, String> contexts) {
+            this.schema = schema;
+            this.contexts = contexts;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (schemaReported) {
+                assertTrue(Thread.currentThread().getName().startsWith("test-cleanup-"));
+                contexts.put(schema, MDC.get("context"));
+                throw new SQLException(schema + " is unavailable");
+            }
+            schemaReported = true;
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "getSchema" -> schema;
+                case "close" -> null;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+
+    static class UnavailableDataSource extends AbstractDataSource {
+        private final String schema;
+
+        UnavailableDataSource(String schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException(schema + " is unavailable");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForeignKeyGraphTest {
+    // order_line -> orders -> customer, order_line -> product, product is referenced from another schema
+    ForeignKeyGraph graph = new ForeignKeyGraph(ForeignKeyGraph.UNKNOWN_VERSION, Map.of(
+            "customer", Set.of("orders"),
+            "orders", Set.of("order_line"),
+            "product", Set.of("order_line"),
+            "order_line", Set.of(),
+            "audit", Set.of()
+    ), Set.of("product"));
+
+    @Test
+    void referencingTablesAreDeletedFirstTest() {
+        assertEquals(List.of("order_line", "orders", "customer", "product"),
+                graph.deleteOrder(List.of("product", "customer", "orders", "order_line")));
+    }
+
+    @Test
+    void tablesOutsideOfGivenSetAreIgnoredTest() {
+        assertEquals(List.of("audit", "customer", "product"), graph.deleteOrder(Set.of("product", "audit", "customer")));
+        assertTrue(graph.containsAll(Set.of("audit", "orders")));
+        assertFalse(graph.containsAll(Set.of("audit", "created_later")));
+    }
+
+    @Test
+    void tablesReferencedFromOtherSchemasAreKnownTest() {
+        assertTrue(graph.isReferencedFromOtherSchemas(graph.referencingClosure(List.of("product"))));
+        assertFalse(graph.isReferencedFromOtherSchemas(graph.referencingClosure(List.of("customer"))));
+    }
+
+    @Test
+    void referencingClosureContainsTablesTruncatedByCascadeTest() {
+        assertEquals(Set.of("customer", "orders", "order_line"), graph.referencingClosure(List.of("customer", "dropped_table")));
+        assertEquals(List.of("order_line", "orders", "customer"), graph.deleteOrder(graph.referencingClosure(List.of("customer"))));
+    }
+}
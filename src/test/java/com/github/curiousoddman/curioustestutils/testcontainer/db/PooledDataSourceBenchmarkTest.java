@@ -0,0 +1,67 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-test connection overhead of pooled data source compared to {@code DriverManagerDataSource}.
+ * Run with {@code -Drun.benchmarks=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "run.benchmarks", matches = "true")
+@TestPropertySource(properties = "curious.test.container.current.schema.name = schema_name")
+class PooledDataSourceBenchmarkTest extends ContainerTest {
+    private static final int SUITE_SIZE = 2_000;
+    // cleanup opens at least 2 connections per template per test
+    private static final int CONNECTIONS_PER_TEST = 2;
+
+    @Autowired
+    PostgreSQLContainer<?> container;
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    void pooledDataSourceSavesConnectionOverheadTest() {
+        DriverManagerDataSource unpooled = new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+        Duration unpooledPerTest = measurePerTest(new JdbcTemplate(unpooled));
+        Duration pooledPerTest = measurePerTest(new JdbcTemplate(dataSource));
+
+        log.info("Per-test overhead: unpooled {} ms, pooled {} ms, saved across {} tests: {} s",
+                 unpooledPerTest.toNanos() / 1e6, pooledPerTest.toNanos() / 1e6, SUITE_SIZE,
+                 unpooledPerTest.minus(pooledPerTest).multipliedBy(SUITE_SIZE).toMillis() / 1e3);
+        assertTrue(pooledPerTest.compareTo(unpooledPerTest) < 0);
+    }
+
+    private static Duration measurePerTest(JdbcTemplate jdbcTemplate) {
+        for (int i = 0; i < 50; i++) {
+            simulateTest(jdbcTemplate);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SUITE_SIZE; i++) {
+            simulateTest(jdbcTemplate);
+        }
+        return Duration.ofNanos((System.nanoTime() - start) / SUITE_SIZE);
+    }
+
+    private static void simulateTest(JdbcTemplate jdbcTemplate) {
+        for (int i = 0; i < CONNECTIONS_PER_TEST; i++) {
+            jdbcTemplate.queryForObject("SELECT to_regclass('t_tests_changes_tracking')", Object.class);
+        }
+    }
+
+    @Override
+    public boolean shouldCleanup() {
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollbackIsolationTest {
+    List<String> calls = new ArrayList<>();
+    ConnectionTrackingDataSource dataSource = new ConnectionTrackingDataSource(new StubDataSource());
+
+    @Test
+    void changesOnBoundConnectionAreRolledBackTest() throws Exception {
+        RollbackIsolation rollbackIsolation = RollbackIsolation.begin(dataSource);
+        DataSourceUtils.getConnection(dataSource).createStatement();
+
+        assertTrue(rollbackIsolation.rollback());
+        assertEquals(1, dataSource.getConnectionCount());
+        assertTrue(calls.contains("rollback"), calls.toString());
+        assertFalse(calls.contains("commit"), calls.toString());
+    }
+
+    @Test
+    void commitRequiresCleanupTest() throws Exception {
+        RollbackIsolation rollbackIsolation = RollbackIsolation.begin(dataSource);
+        DataSourceUtils.getConnection(dataSource).commit();
+
+        assertFalse(rollbackIsolation.rollback());
+    }
+
+    @Test
+    void otherConnectionRequiresCleanupTest() throws Exception {
+        RollbackIsolation rollbackIsolation = RollbackIsolation.begin(dataSource);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+
+        assertFalse(rollbackIsolation.rollback());
+        assertEquals(2, dataSource.getConnectionCount());
+    }
+
+    class StubDataSource extends AbstractDataSource {
+        @Override
+        public Connection getConnection() {
+            boolean[] autoCommit = {true};
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                calls.add(method.getName());
+                return switch (method.getName()) {
+                    case "getAutoCommit" -> autoCommit[0];
+                    case "setAutoCommit" -> autoCommit[0] = (boolean) args[0];
+                    case "isReadOnly", "isClosed" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                };
+            });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Truncation assigns a new file to the table, so unchanged file node means that table was not cleaned up.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestPropertySource(properties = {
+        "curious.test.container.current.schema.name = public",
+        "curious.test.container.change-detection = STATISTICS",
+        "curious.test.container.baseline.tables = seed_table"
+})
+class StatisticsChangeDetectionTest extends ContainerTest {
+    private static final List<String> TABLES = List.of("seed_table", "data_table");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TestCleanUpService testCleanUpService;
+    private List<Long> fileNodesBeforeCleanUp;
+    private List<Long> fileNodesAfterFirstCleanUp;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("CREATE TABLE seed_table (id INT PRIMARY KEY, name VARCHAR)");
+        jdbcTemplate.execute("CREATE TABLE data_table (id INT PRIMARY KEY, name VARCHAR)");
+        jdbcTemplate.update("INSERT INTO seed_table VALUES (1, 'first')");
+        testCleanUpService.snapshotBaseline();
+    }
+
+    @Test
+    @Order(1)
+    void modifiesTablesTest() {
+        jdbcTemplate.update("INSERT INTO seed_table VALUES (2, 'written by test')");
+        jdbcTemplate.update("INSERT INTO data_table VALUES (1, 'written by test')");
+        fileNodesBeforeCleanUp = fileNodes();
+    }
+
+    @Test
+    @Order(2)
+    void tablesAreCleanedUpTest() {
+        fileNodesAfterFirstCleanUp = fileNodes();
+        for (int i = 0; i < TABLES.size(); i++) {
+            assertNotEquals(fileNodesBeforeCleanUp.get(i), fileNodesAfterFirstCleanUp.get(i), TABLES.get(i));
+        }
+        assertEquals(List.of("first"), jdbcTemplate.queryForList("SELECT name FROM seed_table", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM data_table", Integer.class));
+    }
+
+    @Test
+    @Order(3)
+    void tablesAreCleanedUpOnlyOnceTest() {
+        assertEquals(fileNodesAfterFirstCleanUp, fileNodes());
+    }
+
+    private List<Long> fileNodes() {
+        return TABLES.stream()
+                .map(table -> jdbcTemplate.queryForObject("SELECT pg_relation_filenode(?::regclass)", Long.class, table))
+                .toList();
+    }
+}
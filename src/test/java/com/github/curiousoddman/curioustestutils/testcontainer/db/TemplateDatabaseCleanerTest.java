@@ -0,0 +1,84 @@
+package com.github.curiousoddman.curioustestutils.testcontainer.db;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Import(TemplateDatabaseCleanerTest.SeedConfig.class)
+@TestPropertySource(properties = {
+        "curious.test.container.current.schema.name = public",
+        "curious.test.container.cleanup-engine = TEMPLATE_DATABASE"
+})
+class TemplateDatabaseCleanerTest extends ContainerTest {
+    private static final List<String> SEED = List.of("first", "second");
+    private static final Duration DROP_TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    private String firstTestDatabase;
+
+    @Test
+    @Order(1)
+    void firstTestModifiesSeedTest() {
+        assertEquals(SEED, names());
+        firstTestDatabase = currentDatabase();
+        jdbcTemplate.update("INSERT INTO seed_table VALUES (3, 'written by first test')");
+        jdbcTemplate.update("UPDATE seed_table SET name = 'updated by first test' WHERE id = 1");
+    }
+
+    @Test
+    @Order(2)
+    void secondTestSeesOnlySeedTest() throws InterruptedException {
+        assertEquals(SEED, names());
+        assertNotEquals(firstTestDatabase, currentDatabase());
+        // Previous copy is dropped in background
+        Instant deadline = Instant.now().plus(DROP_TIMEOUT);
+        while (databaseExists(firstTestDatabase) && Instant.now().isBefore(deadline)) {
+            Thread.sleep(100);
+        }
+        assertFalse(databaseExists(firstTestDatabase), "Database " + firstTestDatabase + " of the first test is not dropped");
+    }
+
+    private List<String> names() {
+        return jdbcTemplate.queryForList("SELECT name FROM seed_table ORDER BY id", String.class);
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+    }
+
+    private boolean databaseExists(String database) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT FROM pg_database WHERE datname = ?)", Boolean.class, database));
+    }
+
+    /**
+     * Seed data is loaded while beans are created, before the database becomes a template.
+     */
+    @TestConfiguration
+    static class SeedConfig {
+        @Bean
+        String seedTable(JdbcTemplate jdbcTemplate) {
+            jdbcTemplate.execute("CREATE TABLE seed_table (id INT PRIMARY KEY, name VARCHAR)");
+            jdbcTemplate.update("INSERT INTO seed_table VALUES (1, 'first'), (2, 'second')");
+            return "seed_table";
+        }
+    }
+}